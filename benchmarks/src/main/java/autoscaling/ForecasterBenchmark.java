@@ -0,0 +1,96 @@
+package autoscaling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One step of an online forecaster over a synthetic fleet: every VM is
+ * forecast one step ahead, then observes its CPU % (what
+ * SimulationRunner does once per slot in predictions.mode=online).
+ *
+ * Every VM gets a diurnal CPU curve (own phase and amplitude) with noise
+ * and occasional bursts; the steps cycle through STEPS precomputed values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForecasterBenchmark {
+
+    private static final int STEPS = 2000;
+    private static final int SEASON = 96;
+
+    @Param({"holt", "holtwinters", "rls4", "rls8"})
+    public String model;
+
+    @Param({"1000"})
+    public int vms;
+
+    private OnlineForecaster forecaster;
+    private double[][] series;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        switch (model) {
+            case "holt":        forecaster = new HoltWintersForecaster(0.5, 0.1, 0.0, 0); break;
+            case "holtwinters": forecaster = new HoltWintersForecaster(0.3, 0.05, 0.2, SEASON); break;
+            case "rls4":        forecaster = new RlsArForecaster(4, 0.99); break;
+            case "rls8":        forecaster = new RlsArForecaster(8, 0.99); break;
+            default: throw new IllegalArgumentException("Unknown model: " + model);
+        }
+        series = synthesize(vms, STEPS, SEASON, 42L);
+        step = 0;
+    }
+
+    @Benchmark
+    public double step() {
+        int t = step;
+        step = (t + 1) % STEPS;
+        double sum = 0.0;
+        for (int vm = 0; vm < vms; vm++) {
+            sum += forecaster.forecast(vm, 1);   // made before seeing the value
+            forecaster.observe(vm, series[vm][t]);
+        }
+        return sum;
+    }
+
+    /** CPU % in [0,100]: diurnal base + noise + rare bursts. */
+    static double[][] synthesize(int vms, int steps, int season, long seed) {
+        Random rnd = new Random(seed);
+        double[][] out = new double[vms][steps];
+        for (int vm = 0; vm < vms; vm++) {
+            double base = 20 + rnd.nextDouble() * 30;
+            double amp = 5 + rnd.nextDouble() * 25;
+            double phase = rnd.nextDouble() * 2 * Math.PI;
+            int burstLeft = 0;
+            for (int t = 0; t < steps; t++) {
+                double v = base + amp * Math.sin(2 * Math.PI * t / Math.max(1, season) + phase)
+                        + rnd.nextGaussian() * 3;
+                if (burstLeft == 0 && rnd.nextDouble() < 0.005) {
+                    burstLeft = 3 + rnd.nextInt(10);
+                }
+                if (burstLeft > 0) {
+                    v += 30;
+                    burstLeft--;
+                }
+                out[vm][t] = Math.max(0, Math.min(100, v));
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,50 @@
+package autoscaling;
+
+import benchmarks.SyntheticCsv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PredictionLoader construction from a synthetic CSV (CSV path, no .bin).
+ * One op = one full load; ops/s is loads per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx12g", "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"})
+public class PredictionLoaderBenchmark {
+
+    @Param({"1000000", "10000000", "50000000"})
+    public long rows;
+
+    private String csvPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csvPath = SyntheticCsv.ensure(rows).toString();
+        // The loader maps a .bin next to the CSV when present; measure the CSV path
+        Files.deleteIfExists(PredictionBinaryFormat.binaryPathFor(csvPath));
+    }
+
+    @Benchmark
+    public PredictionSource construct() {
+        return new PredictionLoader(csvPath).source();
+    }
+}
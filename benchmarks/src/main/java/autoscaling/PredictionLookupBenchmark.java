@@ -0,0 +1,77 @@
+package autoscaling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PredictionLoader.get (and the primitive predCpu) over a 1M-row table
+ * (100 VMs x 10,000 slots): random (vmId, slot) pairs vs. walking one
+ * VM's slots in order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PredictionLookupBenchmark {
+
+    private static final int VMS = 100;
+    private static final int SLOTS = 10_000;
+    private static final int KEYS = 1 << 16;
+
+    private PredictionLoader loader;
+    private final int[] vmIds = new int[KEYS];
+    private final int[] slots = new int[KEYS];
+    private int next;
+    private int seqSlot;
+
+    @Setup
+    public void setUp() {
+        ColumnarPredictionStore.Builder b = new ColumnarPredictionStore.Builder();
+        Random rnd = new Random(42);
+        for (int vm = 1; vm <= VMS; vm++) {
+            for (int s = 0; s < SLOTS; s++) {
+                double target = rnd.nextDouble() * 100;
+                double pred = rnd.nextDouble() * 100;
+                b.add(s, vm, target, target > 80 ? 1 : 0, pred, pred > 80 ? 1 : 0);
+            }
+        }
+        loader = new PredictionLoader(b.build());
+
+        for (int i = 0; i < KEYS; i++) {
+            vmIds[i] = 1 + rnd.nextInt(VMS);
+            slots[i] = rnd.nextInt(SLOTS);
+        }
+    }
+
+    @Benchmark
+    public PredictionRecord getRandom() {
+        int i = next++ & (KEYS - 1);
+        return loader.get(vmIds[i], slots[i]);
+    }
+
+    @Benchmark
+    public PredictionRecord getSequential() {
+        int s = seqSlot++;
+        if (seqSlot == SLOTS) seqSlot = 0;
+        return loader.get(1, s);
+    }
+
+    @Benchmark
+    public double predCpuRandom() {
+        int i = next++ & (KEYS - 1);
+        return loader.predCpu(vmIds[i], slots[i]);
+    }
+}
@@ -0,0 +1,58 @@
+package autoscaling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** AutoScalerPolicy.decideVmCount throughput on a cycling set of inputs. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalingPolicyBenchmark {
+
+    private static final int N = 1024;
+
+    private final AutoScalerPolicy policy = new AutoScalerPolicy(80.0, 20.0, 1, 10, 1, 1);
+    private final PredictionRecord[] records = new PredictionRecord[N];
+    private final double[] cpus = new double[N];
+    private final int[] vmCounts = new int[N];
+    private final ScalingMetrics metrics = new ScalingMetrics();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(7);
+        for (int i = 0; i < N; i++) {
+            cpus[i] = rnd.nextDouble() * 100;
+            vmCounts[i] = 1 + rnd.nextInt(10);
+            records[i] = new PredictionRecord(i, 1, cpus[i], cpus[i] > 80 ? 1 : 0,
+                    cpus[i], cpus[i] > 80 ? 1 : 0);
+        }
+    }
+
+    @Benchmark
+    public int decideFromRecord() {
+        int i = next++ & (N - 1);
+        return policy.decideVmCount(records[i], vmCounts[i]);
+    }
+
+    @Benchmark
+    public int decideFromMetrics() {
+        int i = next++ & (N - 1);
+        metrics.update(i, cpus[i], Double.NaN, vmCounts[i]);
+        return policy.decideVmCount(metrics);
+    }
+}
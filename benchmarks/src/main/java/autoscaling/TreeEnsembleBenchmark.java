@@ -0,0 +1,90 @@
+package autoscaling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one TreeEnsemble.predictBatch over a fleet's feature rows
+ * (random forest of 100 depth-16 trees over 12 features, the shape of the
+ * CPU regressor).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeEnsembleBenchmark {
+
+    private static final int FEATURES = 12;
+    private static final int TREES = 100;
+    private static final int DEPTH = 16;
+
+    @Param({"100", "1000", "10000"})
+    public int batch;
+
+    private TreeEnsemble model;
+    private double[] rows;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(5);
+        int nodesPerTree = (1 << (DEPTH + 1)) - 1;
+        int n = TREES * nodesPerTree;
+        int[] roots = new int[TREES];
+        int[] feature = new int[n];
+        double[] threshold = new double[n];
+        int[] left = new int[n];
+        int[] right = new int[n];
+
+        // Complete trees in heap order, rebased per tree
+        for (int t = 0; t < TREES; t++) {
+            int base = t * nodesPerTree;
+            roots[t] = base;
+            for (int i = 0; i < nodesPerTree; i++) {
+                int l = 2 * i + 1;
+                if (l < nodesPerTree) {
+                    feature[base + i] = rnd.nextInt(FEATURES);
+                    threshold[base + i] = rnd.nextGaussian();
+                    left[base + i] = base + l;
+                    right[base + i] = base + l + 1;
+                } else {
+                    feature[base + i] = -1;
+                    threshold[base + i] = rnd.nextDouble() * 100;
+                    left[base + i] = -1;
+                    right[base + i] = -1;
+                }
+            }
+        }
+        double[] mean = new double[FEATURES];
+        double[] scale = new double[FEATURES];
+        java.util.Arrays.fill(mean, 50.0);
+        java.util.Arrays.fill(scale, 25.0);
+        model = new TreeEnsemble(false, mean, scale, roots, feature, threshold, left, right);
+
+        rows = new double[batch * FEATURES];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = rnd.nextDouble() * 100;
+        }
+        out = new double[batch];
+    }
+
+    @Benchmark
+    public double[] predictBatch() {
+        model.predictBatch(rows, batch, out);
+        return out;
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Synthetic predictions CSV in the Bitbrains export layout: rows sorted by
+ * VM, slot a global row number, 10,000 slots per VM. Files are cached in
+ * ${bench.dir} (default: <tmpdir>/bb-bench) so later runs reuse them.
+ */
+public final class SyntheticCsv {
+
+    public static final String HEADER =
+            "slot,vm_id,target_cpu_future,target_high_load,pred_cpu_future,pred_high_load";
+    public static final int SLOTS_PER_VM = 10_000;
+
+    private SyntheticCsv() {
+    }
+
+    public static Path ensure(long rows) throws IOException {
+        Path dir = Path.of(System.getProperty("bench.dir",
+                System.getProperty("java.io.tmpdir") + "/bb-bench"));
+        Files.createDirectories(dir);
+        Path csv = dir.resolve("preds_" + rows + ".csv");
+        if (Files.exists(csv)) {
+            return csv;
+        }
+
+        Path tmp = dir.resolve("preds_" + rows + ".csv.tmp");
+        Random rnd = new Random(rows);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 20)) {
+            out.write((HEADER + "\n").getBytes(StandardCharsets.US_ASCII));
+            StringBuilder sb = new StringBuilder(64);
+            for (long r = 0; r < rows; r++) {
+                int vmId = (int) (r / SLOTS_PER_VM) + 1;
+                double target = rnd.nextDouble() * 100.0;
+                double pred = Math.min(100.0, Math.max(0.0, target + rnd.nextGaussian() * 5.0));
+                sb.setLength(0);
+                sb.append(r).append(',').append(vmId).append(',');
+                appendFixed(sb, target, 4).append(',').append(target > 80 ? 1 : 0).append(',');
+                appendFixed(sb, pred, 6).append(',').append(pred > 80 ? 1 : 0).append('\n');
+                for (int i = 0; i < sb.length(); i++) {
+                    out.write(sb.charAt(i));
+                }
+            }
+        }
+        Files.move(tmp, csv);
+        return csv;
+    }
+
+    private static StringBuilder appendFixed(StringBuilder sb, double v, int decimals) {
+        long scale = (long) Math.pow(10, decimals);
+        long units = Math.round(v * scale);
+        sb.append(units / scale).append('.');
+        String frac = Long.toString(units % scale);
+        for (int i = frac.length(); i < decimals; i++) {
+            sb.append('0');
+        }
+        return sb.append(frac);
+    }
+}
@@ -0,0 +1,140 @@
+package cloudsim;
+
+import autoscaling.ColumnarPredictionStore;
+import autoscaling.PredictionSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full clock-tick listener iteration of SimulationRunner (fleet
+ * predictive mode): VM CPU scan, SLA/VM-time bookkeeping, energy meter,
+ * fleet aggregation, policy decision, results row.
+ *
+ * The simulation is started and run for a few time units so the VMs are
+ * placed and their cloudlets running; the policy is pinned to the fleet
+ * size (minVms = maxVms) so every op sees the same VM count.
+ * metrics=true adds the TickMetrics probes (no dump file).
+ *
+ * Time only moves forward (one time unit per op), so VM-time and energy
+ * are accounted on every tick; the prediction table is read at
+ * slot mod SLOTS, so a long run cycles through it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class TickListenerBenchmark {
+
+    private static final int SLOTS = 1000;
+
+    @Param({"10", "100", "1000"})
+    public int vms;
+
+    /** Tick-listener latency histograms on/off (cost of the probes). */
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private SimulationRunner runner;
+    private double time;
+
+    @Setup
+    public void setUp() {
+        ColumnarPredictionStore.Builder b = new ColumnarPredictionStore.Builder();
+        Random rnd = new Random(1);
+        for (int vm = 1; vm <= vms; vm++) {
+            for (int s = 0; s < SLOTS; s++) {
+                double pred = rnd.nextDouble() * 100;
+                b.add(s, vm, pred, pred > 80 ? 1 : 0, pred, pred > 80 ? 1 : 0);
+            }
+        }
+        PredictionSource source = new CyclicSource(b.build());
+
+        ScenarioConfig cfg = ScenarioConfig.preset("predictive")
+                .set("hosts.count", String.valueOf(vms / 2 + 1))
+                .set("vm.initial", String.valueOf(vms))
+                .set("cloudlets.count", String.valueOf(vms))
+                .set("cloudlets.length", "1000000000")
+                .set("policy.minVms", String.valueOf(vms))
+                .set("policy.maxVms", String.valueOf(vms))
+                .set("predictions.fleet", "true")
+                .set("output.path", "none")
+                .set("output.echo", "false")
+                .set("metrics.enabled", String.valueOf(metrics))
+                .set("metrics.path", "none");
+
+        runner = new SimulationRunner(cfg, source);
+        runner.setUp(ResultsWriter.discard());
+        runner.getSimulation().startSync();
+        runner.getSimulation().runFor(5.0);
+        time = 5.0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        runner.getSimulation().terminate();
+    }
+
+    @Benchmark
+    public void tick() {
+        time += 1.0;
+        runner.tick(time);
+    }
+
+    /** The table repeated every SLOTS slots. */
+    private static final class CyclicSource implements PredictionSource {
+
+        private final PredictionSource table;
+
+        CyclicSource(PredictionSource table) {
+            this.table = table;
+        }
+
+        @Override
+        public int vmCount() { return table.vmCount(); }
+
+        @Override
+        public int vmIdAt(int index) { return table.vmIdAt(index); }
+
+        @Override
+        public int indexOf(int vmId) { return table.indexOf(vmId); }
+
+        @Override
+        public int firstSlotAt(int index) { return table.firstSlotAt(index); }
+
+        @Override
+        public double predCpuAt(int index, int slot) {
+            return table.predCpuAt(index, Math.floorMod(slot, SLOTS));
+        }
+
+        @Override
+        public int predHighLoadAt(int index, int slot) {
+            return table.predHighLoadAt(index, Math.floorMod(slot, SLOTS));
+        }
+
+        @Override
+        public double targetCpuAt(int index, int slot) {
+            return table.targetCpuAt(index, Math.floorMod(slot, SLOTS));
+        }
+
+        @Override
+        public int targetHighLoadAt(int index, int slot) {
+            return table.targetHighLoadAt(index, Math.floorMod(slot, SLOTS));
+        }
+    }
+}
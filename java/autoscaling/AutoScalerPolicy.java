@@ -7,8 +7,12 @@ package autoscaling;
  * - If predicted CPU > highThreshold  -> scale up by scaleStepUp
  * - If predicted CPU < lowThreshold   -> scale down by scaleStepDown
  * - Always keep VM count in [minVms, maxVms]
+ *
+ * As a ScalingPolicy it acts on the predicted CPU when there is one and on
+ * the observed CPU otherwise (reactive mode), or on memory / network /
+ * disk when one of those is the bottleneck (ScalingMetrics.signal()).
  */
-public class AutoScalerPolicy {
+public class AutoScalerPolicy implements ScalingPolicy {
 
     private final double highThreshold;
     private final double lowThreshold;
@@ -31,6 +35,16 @@ public class AutoScalerPolicy {
         this.scaleStepDown = scaleStepDown;
     }
 
+    @Override
+    public int decideVmCount(ScalingMetrics metrics) {
+        double share = metrics.getHighLoadShare();
+        if (share > 0.5 && !(metrics.signal() > highThreshold)) {
+            // Majority of VMs flagged high-load: scale up anyway
+            return clamp(metrics.getVmCount() + scaleStepUp);
+        }
+        return decideVmCount(metrics.signal(), metrics.getVmCount());
+    }
+
     /**
      * Decide the new VM count given the prediction and current number of VMs.
      */
@@ -39,8 +53,18 @@ public class AutoScalerPolicy {
             // No prediction? Keep current VM count.
             return currentVmCount;
         }
+        return decideVmCount(rec.getPredCpuFuture(), currentVmCount);
+    }
+
+    /**
+     * Same decision from a raw predicted CPU value (NaN = no prediction).
+     * Allocation-free variant for the clock-tick listener.
+     */
+    public int decideVmCount(double cpu, int currentVmCount) {
+        if (Double.isNaN(cpu)) {
+            return currentVmCount;
+        }
 
-        double cpu = rec.getPredCpuFuture();
         int desired = currentVmCount;
 
         // Scale up
@@ -52,10 +76,13 @@ public class AutoScalerPolicy {
             desired = currentVmCount - scaleStepDown;
         }
 
-        // Clamp within [minVms, maxVms]
+        return clamp(desired);
+    }
+
+    // Clamp within [minVms, maxVms]
+    private int clamp(int desired) {
         if (desired < minVms) desired = minVms;
         if (desired > maxVms) desired = maxVms;
-
         return desired;
     }
 }
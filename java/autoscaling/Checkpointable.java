@@ -0,0 +1,19 @@
+package autoscaling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Run state that can be saved into a simulation checkpoint and restored
+ * into a freshly built instance with the same configuration.
+ *
+ * readState() must read exactly what writeState() wrote, in the same order;
+ * configuration (thresholds, sizes, ...) is not part of the state.
+ */
+public interface Checkpointable {
+
+    void writeState(DataOutput out) throws IOException;
+
+    void readState(DataInput in) throws IOException;
+}
@@ -0,0 +1,341 @@
+package autoscaling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented prediction table.
+ *
+ * Layout:
+ * - one dense column per field and per VM, indexed by (slot - firstSlot)
+ * - vmId -> column index through a compact open-addressing map
+ * - a missing slot inside a VM's range is stored as NaN in predCpu
+ * - memory / network / disk (optional) are float columns, allocated only
+ *   for the resources and VMs that have them (NaN = no value)
+ *
+ * The primitive accessors (predCpu, predHighLoad, ...) never allocate,
+ * so they are safe to call from the clock-tick listener.
+ */
+public final class ColumnarPredictionStore implements PredictionSource {
+
+    private final IntIndexMap vmIndex;
+    private final int[] vmIds;
+    private final int[] firstSlot;
+    private final double[][] targetCpu;
+    private final byte[][] targetHigh;
+    private final double[][] predCpu;
+    private final byte[][] predHigh;
+    // [Resource.extraIndex][vm][pos]; null resource = not in the table, null VM = no values
+    private final float[][][] extraTarget;
+    private final float[][][] extraPred;
+    private final long rowCount;
+
+    private ColumnarPredictionStore(IntIndexMap vmIndex,
+                                    int[] vmIds,
+                                    int[] firstSlot,
+                                    double[][] targetCpu,
+                                    byte[][] targetHigh,
+                                    double[][] predCpu,
+                                    byte[][] predHigh,
+                                    float[][][] extraTarget,
+                                    float[][][] extraPred,
+                                    long rowCount) {
+        this.vmIndex = vmIndex;
+        this.vmIds = vmIds;
+        this.firstSlot = firstSlot;
+        this.targetCpu = targetCpu;
+        this.targetHigh = targetHigh;
+        this.predCpu = predCpu;
+        this.predHigh = predHigh;
+        this.extraTarget = extraTarget;
+        this.extraPred = extraPred;
+        this.rowCount = rowCount;
+    }
+
+    // ------------ PredictionSource ------------
+
+    @Override
+    public int vmCount() { return vmIds.length; }
+
+    @Override
+    public int vmIdAt(int index) { return vmIds[index]; }
+
+    @Override
+    public int indexOf(int vmId) { return vmIndex.get(vmId); }
+
+    @Override
+    public int firstSlotAt(int index) { return firstSlot[index]; }
+
+    /** Number of slots covered by the VM's columns (including gaps). */
+    public int slotCountAt(int index) { return predCpu[index].length; }
+
+    public long rowCount() { return rowCount; }
+
+    @Override
+    public double predCpuAt(int index, int slot) {
+        int pos = slot - firstSlot[index];
+        double[] col = predCpu[index];
+        return (pos < 0 || pos >= col.length) ? Double.NaN : col[pos];
+    }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) {
+        int pos = position(index, slot);
+        return pos < 0 ? -1 : predHigh[index][pos];
+    }
+
+    @Override
+    public double targetCpuAt(int index, int slot) {
+        int pos = position(index, slot);
+        return pos < 0 ? Double.NaN : targetCpu[index][pos];
+    }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) {
+        int pos = position(index, slot);
+        return pos < 0 ? -1 : targetHigh[index][pos];
+    }
+
+    @Override
+    public boolean hasResource(Resource r) {
+        return r == Resource.CPU || extraPred[r.extraIndex()] != null;
+    }
+
+    @Override
+    public double predAt(Resource r, int index, int slot) {
+        return r == Resource.CPU ? predCpuAt(index, slot) : extra(extraPred, r, index, slot);
+    }
+
+    @Override
+    public double targetAt(Resource r, int index, int slot) {
+        return r == Resource.CPU ? targetCpuAt(index, slot) : extra(extraTarget, r, index, slot);
+    }
+
+    private double extra(float[][][] columns, Resource r, int index, int slot) {
+        float[][] byVm = columns[r.extraIndex()];
+        float[] col = (byVm == null) ? null : byVm[index];
+        int pos = slot - firstSlot[index];
+        return (col == null || pos < 0 || pos >= col.length) ? Double.NaN : col[pos];
+    }
+
+    /** Position of slot inside the VM's columns, or -1 if there is no row. */
+    private int position(int index, int slot) {
+        int pos = slot - firstSlot[index];
+        double[] col = predCpu[index];
+        if (pos < 0 || pos >= col.length || Double.isNaN(col[pos])) return -1;
+        return pos;
+    }
+
+    // ------------ Builder ------------
+
+    /**
+     * Accumulates rows in arrival order and scatters them into dense
+     * columns on build(). Duplicate (vmId, slot) rows: last one wins.
+     */
+    public static final class Builder {
+
+        private final IntIndexMap vmIndex = new IntIndexMap(1024);
+        private final List<VmRows> vms = new ArrayList<>();
+        private VmRows last;
+        private long rowCount;
+
+        public Builder add(int slot, int vmId,
+                           double targetCpuFuture, int targetHighLoad,
+                           double predCpuFuture, int predHighLoad) {
+            int idx = vmIndex.get(vmId);
+            if (idx < 0) {
+                idx = vms.size();
+                vms.add(new VmRows(vmId));
+                vmIndex.put(vmId, idx);
+            }
+            vms.get(idx).add(slot, targetCpuFuture, targetHighLoad, predCpuFuture, predHighLoad);
+            last = vms.get(idx);
+            rowCount++;
+            return this;
+        }
+
+        /** Memory / network / disk values of the row added last (NaN = none). */
+        public Builder extra(Resource r, double target, double pred) {
+            if (last == null || r == Resource.CPU) {
+                throw new IllegalStateException("extra() needs a preceding add() and a non-CPU resource");
+            }
+            if (target == target || pred == pred) {
+                last.extra(r.extraIndex(), target, pred);
+            }
+            return this;
+        }
+
+        /** Append all rows staged in other (e.g. a per-chunk builder), in order. */
+        public Builder addAll(Builder other) {
+            for (VmRows rows : other.vms) {
+                int idx = vmIndex.get(rows.vmId);
+                if (idx < 0) {
+                    idx = vms.size();
+                    vms.add(new VmRows(rows.vmId));
+                    vmIndex.put(rows.vmId, idx);
+                }
+                vms.get(idx).addAll(rows);
+            }
+            rowCount += other.rowCount;
+            return this;
+        }
+
+        public long rowCount() {
+            return rowCount;
+        }
+
+        public ColumnarPredictionStore build() {
+            int n = vms.size();
+            IntIndexMap index = new IntIndexMap(n);
+            int[] ids = new int[n];
+            int[] first = new int[n];
+            double[][] tCpu = new double[n][];
+            byte[][] tHigh = new byte[n][];
+            double[][] pCpu = new double[n][];
+            byte[][] pHigh = new byte[n][];
+            float[][][] xTarget = new float[Resource.EXTRA.length][][];
+            float[][][] xPred = new float[Resource.EXTRA.length][][];
+
+            for (int i = 0; i < n; i++) {
+                VmRows rows = vms.get(i);
+                int span = rows.maxSlot - rows.minSlot + 1;
+
+                ids[i] = rows.vmId;
+                first[i] = rows.minSlot;
+                tCpu[i] = new double[span];
+                tHigh[i] = new byte[span];
+                pCpu[i] = new double[span];
+                pHigh[i] = new byte[span];
+                Arrays.fill(pCpu[i], Double.NaN);
+                Arrays.fill(tCpu[i], Double.NaN);
+
+                for (int r = 0; r < rows.size; r++) {
+                    int pos = rows.slots[r] - rows.minSlot;
+                    tCpu[i][pos] = rows.targetCpu[r];
+                    tHigh[i][pos] = rows.targetHigh[r];
+                    pCpu[i][pos] = rows.predCpu[r];
+                    pHigh[i][pos] = rows.predHigh[r];
+                }
+                for (int x = 0; x < xPred.length; x++) {
+                    if (rows.extraPred[x] == null) continue;
+                    if (xPred[x] == null) {
+                        xTarget[x] = new float[n][];
+                        xPred[x] = new float[n][];
+                    }
+                    xTarget[x][i] = new float[span];
+                    xPred[x][i] = new float[span];
+                    Arrays.fill(xTarget[x][i], Float.NaN);
+                    Arrays.fill(xPred[x][i], Float.NaN);
+                    for (int r = 0; r < rows.size; r++) {
+                        int pos = rows.slots[r] - rows.minSlot;
+                        xTarget[x][i][pos] = rows.extraTarget[x][r];
+                        xPred[x][i][pos] = rows.extraPred[x][r];
+                    }
+                }
+                index.put(rows.vmId, i);
+                vms.set(i, null); // let the staging arrays go early
+            }
+
+            return new ColumnarPredictionStore(index, ids, first, tCpu, tHigh, pCpu, pHigh,
+                    xTarget, xPred, rowCount);
+        }
+    }
+
+    /** Growable staging columns for one VM. */
+    private static final class VmRows {
+        final int vmId;
+        int size;
+        int minSlot = Integer.MAX_VALUE;
+        int maxSlot = Integer.MIN_VALUE;
+        int[] slots = new int[64];
+        double[] targetCpu = new double[64];
+        byte[] targetHigh = new byte[64];
+        double[] predCpu = new double[64];
+        byte[] predHigh = new byte[64];
+        // Per Resource.extraIndex, created on the VM's first value (NaN-filled)
+        final float[][] extraTarget = new float[Resource.EXTRA.length][];
+        final float[][] extraPred = new float[Resource.EXTRA.length][];
+
+        VmRows(int vmId) {
+            this.vmId = vmId;
+        }
+
+        void add(int slot, double tCpu, int tHigh, double pCpu, int pHigh) {
+            if (size == slots.length) {
+                grow(size * 2);
+            }
+            slots[size] = slot;
+            targetCpu[size] = tCpu;
+            targetHigh[size] = (byte) tHigh;
+            predCpu[size] = pCpu;
+            predHigh[size] = (byte) pHigh;
+            for (int x = 0; x < extraPred.length; x++) {
+                if (extraPred[x] != null) {
+                    extraTarget[x][size] = Float.NaN;
+                    extraPred[x][size] = Float.NaN;
+                }
+            }
+            size++;
+            if (slot < minSlot) minSlot = slot;
+            if (slot > maxSlot) maxSlot = slot;
+        }
+
+        // Values for the last added row
+        void extra(int x, double target, double pred) {
+            if (extraPred[x] == null) {
+                createExtra(x);
+            }
+            extraTarget[x][size - 1] = (float) target;
+            extraPred[x][size - 1] = (float) pred;
+        }
+
+        private void createExtra(int x) {
+            extraTarget[x] = new float[slots.length];
+            extraPred[x] = new float[slots.length];
+            Arrays.fill(extraTarget[x], Float.NaN);
+            Arrays.fill(extraPred[x], Float.NaN);
+        }
+
+        void addAll(VmRows other) {
+            int needed = size + other.size;
+            if (needed > slots.length) {
+                grow(Math.max(needed, slots.length * 2));
+            }
+            for (int x = 0; x < extraPred.length; x++) {
+                if (other.extraPred[x] != null) {
+                    if (extraPred[x] == null) {
+                        createExtra(x);
+                    }
+                    System.arraycopy(other.extraTarget[x], 0, extraTarget[x], size, other.size);
+                    System.arraycopy(other.extraPred[x], 0, extraPred[x], size, other.size);
+                } else if (extraPred[x] != null) {
+                    Arrays.fill(extraTarget[x], size, needed, Float.NaN);
+                    Arrays.fill(extraPred[x], size, needed, Float.NaN);
+                }
+            }
+            System.arraycopy(other.slots, 0, slots, size, other.size);
+            System.arraycopy(other.targetCpu, 0, targetCpu, size, other.size);
+            System.arraycopy(other.targetHigh, 0, targetHigh, size, other.size);
+            System.arraycopy(other.predCpu, 0, predCpu, size, other.size);
+            System.arraycopy(other.predHigh, 0, predHigh, size, other.size);
+            size = needed;
+            minSlot = Math.min(minSlot, other.minSlot);
+            maxSlot = Math.max(maxSlot, other.maxSlot);
+        }
+
+        private void grow(int cap) {
+            slots = Arrays.copyOf(slots, cap);
+            targetCpu = Arrays.copyOf(targetCpu, cap);
+            targetHigh = Arrays.copyOf(targetHigh, cap);
+            predCpu = Arrays.copyOf(predCpu, cap);
+            predHigh = Arrays.copyOf(predHigh, cap);
+            for (int x = 0; x < extraPred.length; x++) {
+                if (extraPred[x] != null) {
+                    extraTarget[x] = Arrays.copyOf(extraTarget[x], cap);
+                    extraPred[x] = Arrays.copyOf(extraPred[x], cap);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package autoscaling;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses one predictions row straight from bytes:
+ *   slot,vm_id,target_cpu_future,target_high_load,pred_cpu_future,pred_high_load
+ * optionally followed by target / pred pairs for memory, network and disk
+ * (see Resource); an empty extra field is NaN.
+ *
+ * No String.split and no String per field. Doubles with up to 15
+ * significant digits and a small exponent are built exactly from the
+ * digits (one correctly rounded multiply/divide); anything longer falls
+ * back to Double.parseDouble for that field only.
+ *
+ * One instance per thread: the parsed values live in mutable fields.
+ */
+final class CsvRowParser {
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    int slot;
+    int vmId;
+    double targetCpuFuture;
+    int targetHighLoad;
+    double predCpuFuture;
+    int predHighLoad;
+    // Optional resources: target at 2 * extraIndex, pred at 2 * extraIndex + 1
+    final double[] extras = new double[2 * Resource.EXTRA.length];
+    int extraFields;
+
+    private int pos;
+    private boolean failed;
+
+    /**
+     * Parse the row in buf[start, end) (no line terminator; a trailing
+     * '\r' is tolerated). Returns false if the row is malformed.
+     */
+    boolean parse(ByteBuffer buf, int start, int end) {
+        if (end > start && buf.get(end - 1) == '\r') end--;
+        pos = start;
+        failed = false;
+
+        slot = parseInt(buf, end);
+        vmId = parseInt(buf, end);
+        targetCpuFuture = parseDouble(buf, end);
+        targetHighLoad = parseInt(buf, end);
+        predCpuFuture = parseDouble(buf, end);
+        predHighLoad = parseInt(buf, end);
+
+        // Optional trailing resource columns
+        extraFields = 0;
+        while (!failed && pos <= end && extraFields < extras.length) {
+            if (pos == end || buf.get(pos) == ',') {
+                extras[extraFields++] = Double.NaN;  // empty field
+                pos++;
+            } else {
+                extras[extraFields++] = parseDouble(buf, end);
+            }
+        }
+        for (int k = extraFields; k < extras.length; k++) {
+            extras[k] = Double.NaN;
+        }
+
+        // Must have consumed every field (six, plus up to six extras)
+        return !failed && pos == end + 1;
+    }
+
+    /** Parse an int field and step over the following ',' (or end). */
+    private int parseInt(ByteBuffer buf, int end) {
+        if (failed || pos > end) {
+            failed = true;
+            return 0;
+        }
+        int i = pos;
+        boolean neg = false;
+        if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            neg = buf.get(i) == '-';
+            i++;
+        }
+        int digitsStart = i;
+        long value = 0;
+        while (i < end) {
+            int c = buf.get(i) - '0';
+            if (c < 0 || c > 9) break;
+            value = value * 10 + c;
+            if (value > Integer.MAX_VALUE + 1L) {
+                failed = true;
+                return 0;
+            }
+            i++;
+        }
+        // Tolerate integers exported as "1.0" by pandas
+        if (i < end && buf.get(i) == '.') {
+            i++;
+            while (i < end && buf.get(i) == '0') i++;
+        }
+        // Out of int range (2147483648 only fits negated)
+        if (i == digitsStart || !endOfField(buf, i, end) || (!neg && value > Integer.MAX_VALUE)) {
+            failed = true;
+            return 0;
+        }
+        pos = i + 1;
+        return (int) (neg ? -value : value);
+    }
+
+    /** Parse a double field and step over the following ',' (or end). */
+    private double parseDouble(ByteBuffer buf, int end) {
+        if (failed || pos > end) {
+            failed = true;
+            return 0;
+        }
+        int fieldStart = pos;
+        int i = pos;
+        boolean neg = false;
+        if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            neg = buf.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;       // significant digits seen
+        int scale = 0;        // power-of-ten adjustment
+        boolean any = false;
+
+        while (i < end) {
+            int c = buf.get(i) - '0';
+            if (c < 0 || c > 9) break;
+            any = true;
+            if (mantissa != 0 || c != 0) {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + c;
+                    digits++;
+                } else {
+                    scale++;
+                    digits++;
+                }
+            }
+            i++;
+        }
+        if (i < end && buf.get(i) == '.') {
+            i++;
+            while (i < end) {
+                int c = buf.get(i) - '0';
+                if (c < 0 || c > 9) break;
+                any = true;
+                if (mantissa != 0 || c != 0) {
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + c;
+                        scale--;
+                    }
+                    digits++;
+                } else {
+                    scale--;
+                }
+                i++;
+            }
+        }
+        if (any && i < end && (buf.get(i) == 'e' || buf.get(i) == 'E')) {
+            i++;
+            boolean expNeg = false;
+            if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                expNeg = buf.get(i) == '-';
+                i++;
+            }
+            int expStart = i;
+            int exp = 0;
+            while (i < end) {
+                int c = buf.get(i) - '0';
+                if (c < 0 || c > 9) break;
+                if (exp < 10_000) exp = exp * 10 + c;
+                i++;
+            }
+            if (i == expStart) {
+                failed = true;
+                return 0;
+            }
+            scale += expNeg ? -exp : exp;
+        }
+
+        if (!any || !endOfField(buf, i, end)) {
+            // Not a plain decimal (e.g. "nan", "inf"): let the JDK decide
+            return slowParse(buf, fieldStart, fieldEnd(buf, fieldStart, end));
+        }
+        pos = i + 1;
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (digits <= 15 && scale >= -22 && scale <= 22) {
+            value = scale < 0 ? mantissa / POW10[-scale] : mantissa * POW10[scale];
+        } else {
+            return slowParse(buf, fieldStart, i);
+        }
+        return neg ? -value : value;
+    }
+
+    private double slowParse(ByteBuffer buf, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int k = 0; k < bytes.length; k++) bytes[k] = buf.get(from + k);
+        try {
+            double v = Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII).trim());
+            pos = to + 1;
+            return v;
+        } catch (NumberFormatException e) {
+            failed = true;
+            return 0;
+        }
+    }
+
+    private static int fieldEnd(ByteBuffer buf, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buf.get(i) == ',') return i;
+        }
+        return end;
+    }
+
+    private static boolean endOfField(ByteBuffer buf, int i, int end) {
+        return i == end || buf.get(i) == ',';
+    }
+}
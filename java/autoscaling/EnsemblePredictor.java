@@ -0,0 +1,155 @@
+package autoscaling;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Serves the exported RandomForest models on live CPU series, replacing
+ * the predCpuFuture / predHighLoad columns of the predictions CSV.
+ *
+ * Logic:
+ * - observe(series, cpu) pushes the VM's current CPU % into its window
+ *   (a primitive ring of featureCount values, like the training windows)
+ * - predict(series[], n) builds one feature row per VM with a full window
+ *   (oldest value first) and runs both models over the batch
+ * - results are read back with predCpuAt(i) / highLoadAt(i)
+ *
+ * The classifier is optional; without it highLoadAt() is always false.
+ * close() shuts down the batch pool if the predictor owns it.
+ */
+public final class EnsemblePredictor implements AutoCloseable {
+
+    private final TreeEnsemble regressor;
+    private final TreeEnsemble classifier;
+    private final int window;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    // Per-series windows: series * window ring + newest position
+    private double[] history = new double[0];
+    private int[] head = new int[0];
+    private long[] count = new long[0];
+
+    // Batch buffers, grow with the fleet
+    private double[] rows = new double[0];
+    private double[] predCpu = new double[0];
+    private double[] highProb = new double[0];
+    private int[] rowIndex = new int[0];
+
+    private long lastNanos;
+    private long totalNanos;
+    private long batches;
+
+    public EnsemblePredictor(TreeEnsemble regressor, TreeEnsemble classifier, ForkJoinPool pool) {
+        this(regressor, classifier, pool, false);
+    }
+
+    /** @param ownsPool shut the pool down on close() */
+    public EnsemblePredictor(TreeEnsemble regressor, TreeEnsemble classifier, ForkJoinPool pool,
+                             boolean ownsPool) {
+        if (regressor.isClassifier()) {
+            throw new IllegalArgumentException("First model must be a regressor");
+        }
+        if (classifier != null && (!classifier.isClassifier()
+                || classifier.featureCount() != regressor.featureCount())) {
+            throw new IllegalArgumentException("Classifier must be a classifier over the same "
+                    + regressor.featureCount() + " features");
+        }
+        this.regressor = regressor;
+        this.classifier = classifier;
+        this.window = regressor.featureCount();
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    public int window() { return window; }
+
+    public void observe(int series, double cpu) {
+        if (series >= count.length) {
+            int cap = Math.max(series + 1, count.length * 2);
+            history = Arrays.copyOf(history, cap * window);
+            head = Arrays.copyOf(head, cap);
+            count = Arrays.copyOf(count, cap);
+        }
+        int h = (head[series] + 1) % window;
+        history[series * window + h] = cpu;
+        head[series] = h;
+        count[series]++;
+    }
+
+    /** Forget a series' window (its VM is gone; the index may be reused). */
+    public void reset(int series) {
+        if (series < count.length) {
+            head[series] = 0;
+            count[series] = 0;
+        }
+    }
+
+    /**
+     * Predict for series[0..n). Entry i gets a prediction only if that
+     * series has a full window; otherwise predCpuAt(i) is NaN.
+     * Returns the number of series actually predicted.
+     */
+    public int predict(int[] series, int n) {
+        long start = System.nanoTime();
+        if (predCpu.length < n) {
+            int cap = Math.max(n, predCpu.length * 2);
+            rows = new double[cap * window];
+            predCpu = new double[cap];
+            highProb = new double[cap];
+            rowIndex = new int[cap];
+        }
+
+        // 1) Feature rows for series with a full window (oldest value first)
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            int s = series[i];
+            if (s < 0 || s >= count.length || count[s] < window) {
+                rowIndex[i] = -1;
+                continue;
+            }
+            int base = s * window;
+            int oldest = (head[s] + 1) % window;
+            int dst = m * window;
+            int firstPart = window - oldest;
+            System.arraycopy(history, base + oldest, rows, dst, firstPart);
+            System.arraycopy(history, base, rows, dst + firstPart, oldest);
+            rowIndex[i] = m++;
+        }
+
+        // 2) Batch inference (results are in row order, compacted)
+        if (m > 0) {
+            regressor.predictBatch(rows, m, predCpu, pool);
+            if (classifier != null) {
+                classifier.predictBatch(rows, m, highProb, pool);
+            }
+        }
+
+        lastNanos = System.nanoTime() - start;
+        totalNanos += lastNanos;
+        batches++;
+        return m;
+    }
+
+    /** Predicted future CPU % of series[i] from the last predict(), NaN if none. */
+    public double predCpuAt(int i) {
+        int r = rowIndex[i];
+        return r < 0 ? Double.NaN : predCpu[r];
+    }
+
+    /** Classifier says series[i] will be high-load (P(class 1) > 0.5). */
+    public boolean highLoadAt(int i) {
+        int r = rowIndex[i];
+        return r >= 0 && classifier != null && highProb[r] > 0.5;
+    }
+
+    public long lastNanos() { return lastNanos; }
+    public double meanMicrosPerBatch() { return batches == 0 ? 0.0 : totalNanos / 1e3 / batches; }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+}
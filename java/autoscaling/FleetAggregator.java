@@ -0,0 +1,142 @@
+package autoscaling;
+
+/**
+ * Fleet-wide view of the predictions for one slot.
+ *
+ * Each call to aggregate(slot) scans every VM in the source and keeps:
+ * - count of VMs with a prediction
+ * - sum / mean / max of predicted CPU
+ * - p95 of predicted CPU (quickselect on a reused scratch array)
+ * - number of predHighLoad flags
+ *
+ * No allocation per tick: the gather goes into a scratch array that only
+ * grows when the fleet does; the sum uses four independent accumulators
+ * so the JIT can pipeline (and unroll) the reduction.
+ *
+ * With alignToVmStart the slot is taken relative to each VM's first slot,
+ * which suits traces where every VM has its own slot range (as in the
+ * Bitbrains export, whose slot column is a global row number).
+ *
+ * The aggregated column is predicted CPU by default; one aggregator per
+ * resource covers memory / network / disk (no high-load flags there).
+ */
+public final class FleetAggregator {
+
+    private final PredictionSource source;
+    private final boolean alignToVmStart;
+    private final Resource resource;
+    private double[] scratch = new double[0];
+
+    // Results of the last aggregate()
+    private int count;
+    private double sum;
+    private double max;
+    private double p95;
+    private int highLoadCount;
+
+    // Timing
+    private long lastNanos;
+    private long totalNanos;
+    private long ticks;
+
+    public FleetAggregator(PredictionSource source, boolean alignToVmStart) {
+        this(source, alignToVmStart, Resource.CPU);
+    }
+
+    public FleetAggregator(PredictionSource source, boolean alignToVmStart, Resource resource) {
+        this.source = source;
+        this.alignToVmStart = alignToVmStart;
+        this.resource = resource;
+    }
+
+    public void aggregate(int slot) {
+        long start = System.nanoTime();
+
+        int vms = source.vmCount();
+        if (scratch.length < vms) {
+            scratch = new double[Math.max(vms, scratch.length * 2)];
+        }
+        double[] values = scratch;
+
+        // 1) Gather present predictions into a dense array
+        int n = 0;
+        int high = 0;
+        if (resource == Resource.CPU) {
+            for (int i = 0; i < vms; i++) {
+                int s = alignToVmStart ? source.firstSlotAt(i) + slot : slot;
+                double v = source.predCpuAt(i, s);
+                if (v == v) { // not NaN
+                    values[n++] = v;
+                    if (source.predHighLoadAt(i, s) > 0) high++;
+                }
+            }
+        } else {
+            for (int i = 0; i < vms; i++) {
+                double v = source.predAt(resource, i, alignToVmStart ? source.firstSlotAt(i) + slot : slot);
+                if (v == v) values[n++] = v;
+            }
+        }
+
+        // 2) Sum / max over the dense array (4 independent lanes)
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        double m0 = Double.NEGATIVE_INFINITY, m1 = m0, m2 = m0, m3 = m0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            double a = values[i], b = values[i + 1], c = values[i + 2], d = values[i + 3];
+            s0 += a; s1 += b; s2 += c; s3 += d;
+            m0 = Math.max(m0, a); m1 = Math.max(m1, b); m2 = Math.max(m2, c); m3 = Math.max(m3, d);
+        }
+        for (; i < n; i++) {
+            s0 += values[i];
+            m0 = Math.max(m0, values[i]);
+        }
+
+        count = n;
+        sum = (s0 + s1) + (s2 + s3);
+        max = (n == 0) ? Double.NaN : Math.max(Math.max(m0, m1), Math.max(m2, m3));
+        highLoadCount = high;
+
+        // 3) p95 (nearest rank) by in-place selection
+        p95 = (n == 0) ? Double.NaN : select(values, n, (int) Math.ceil(0.95 * n) - 1);
+
+        lastNanos = System.nanoTime() - start;
+        totalNanos += lastNanos;
+        ticks++;
+    }
+
+    public int count() { return count; }
+    public double sum() { return sum; }
+    public double mean() { return count == 0 ? Double.NaN : sum / count; }
+    public double max() { return max; }
+    public double p95() { return p95; }
+    public int highLoadCount() { return highLoadCount; }
+    public double highLoadShare() { return count == 0 ? 0.0 : (double) highLoadCount / count; }
+
+    public long lastNanos() { return lastNanos; }
+    public long ticks() { return ticks; }
+    public double meanMicrosPerTick() { return ticks == 0 ? 0.0 : totalNanos / 1e3 / ticks; }
+
+    /** k-th smallest of a[0..n) (Hoare quickselect, reorders a). */
+    static double select(double[] a, int n, int k) {
+        int lo = 0, hi = n - 1;
+        while (lo < hi) {
+            double pivot = a[(lo + hi) >>> 1];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) {
+                    double t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return a[k];
+        }
+        return a[k];
+    }
+}
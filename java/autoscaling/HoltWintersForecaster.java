@@ -0,0 +1,108 @@
+package autoscaling;
+
+import java.util.Arrays;
+
+/**
+ * Additive Holt-Winters exponential smoothing, one state per series.
+ *
+ * Logic (per observation x, s = seasonal term of this step):
+ * - level  = alpha * (x - s) + (1 - alpha) * (level + trend)
+ * - trend  = beta * (level - previous level) + (1 - beta) * trend
+ * - season = gamma * (x - level) + (1 - gamma) * s
+ * - forecast(h) = level + h * trend + season of step t + h
+ *
+ * seasonLength = 0 gives plain Holt (level + trend) smoothing.
+ * The seasonal terms of all series live in one flat ring array
+ * (series * seasonLength + step % seasonLength).
+ */
+public final class HoltWintersForecaster implements OnlineForecaster {
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final int seasonLength;
+
+    private double[] level = new double[0];
+    private double[] trend = new double[0];
+    private double[] season = new double[0];
+    private long[] count = new long[0];
+
+    public HoltWintersForecaster(double alpha, double beta, double gamma, int seasonLength) {
+        if (alpha <= 0 || alpha > 1 || beta < 0 || beta > 1 || gamma < 0 || gamma > 1) {
+            throw new IllegalArgumentException("Smoothing factors must be in [0,1] (alpha > 0)");
+        }
+        if (seasonLength < 0) {
+            throw new IllegalArgumentException("seasonLength must be >= 0");
+        }
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonLength = seasonLength;
+    }
+
+    @Override
+    public void observe(int series, double value) {
+        ensureCapacity(series + 1);
+        long n = count[series];
+        if (n == 0) {
+            // First value: flat start, no trend, no seasonality yet
+            level[series] = value;
+            trend[series] = 0.0;
+            count[series] = 1;
+            return;
+        }
+
+        int si = seasonLength == 0 ? -1 : series * seasonLength + (int) (n % seasonLength);
+        double s = si < 0 ? 0.0 : season[si];
+
+        double prevLevel = level[series];
+        double l = alpha * (value - s) + (1 - alpha) * (prevLevel + trend[series]);
+        level[series] = l;
+        trend[series] = beta * (l - prevLevel) + (1 - beta) * trend[series];
+        if (si >= 0) {
+            season[si] = gamma * (value - l) + (1 - gamma) * s;
+        }
+        count[series] = n + 1;
+    }
+
+    @Override
+    public double forecast(int series, int horizon) {
+        if (series >= count.length || count[series] == 0) {
+            return Double.NaN;
+        }
+        double f = level[series] + horizon * trend[series];
+        if (seasonLength > 0) {
+            // Seasonal term of step (last + horizon)
+            long step = count[series] + horizon - 1;
+            f += season[series * seasonLength + (int) (step % seasonLength)];
+        }
+        return f;
+    }
+
+    @Override
+    public void reset(int series) {
+        if (series < count.length) {
+            count[series] = 0;
+            if (seasonLength > 0) {
+                int from = series * seasonLength;
+                Arrays.fill(season, from, from + seasonLength, 0.0);
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return seasonLength == 0 ? "holt" : "holt-winters(" + seasonLength + ")";
+    }
+
+    private void ensureCapacity(int series) {
+        if (series <= count.length) {
+            return;
+        }
+        int cap = Math.max(series, count.length * 2);
+        level = Arrays.copyOf(level, cap);
+        trend = Arrays.copyOf(trend, cap);
+        count = Arrays.copyOf(count, cap);
+        season = Arrays.copyOf(season, cap * seasonLength);
+    }
+}
@@ -0,0 +1,101 @@
+package autoscaling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Threshold policy with hysteresis and cooldowns.
+ *
+ * Logic:
+ * - CPU must stay above highThreshold (or below lowThreshold) for
+ *   breachEvaluations consecutive evaluations before we scale up by
+ *   scaleStepUp (or down by scaleStepDown)
+ * - after any action, wait upCooldown / downCooldown (simulation time)
+ *   before the next scale up / scale down
+ * - scale down only if the projected CPU on the remaining VMs,
+ *   cpu * n / (n - scaleStepDown), stays below highThreshold; otherwise
+ *   removing VMs would just trigger the next scale up (the flapping seen
+ *   in the reactive runs)
+ * - always keep VM count in [minVms, maxVms]
+ */
+public class HysteresisScalingPolicy implements ScalingPolicy, Checkpointable {
+
+    private final double highThreshold;
+    private final double lowThreshold;
+    private final int minVms;
+    private final int maxVms;
+    private final int scaleStepUp;
+    private final int scaleStepDown;
+    private final int breachEvaluations;
+    private final double upCooldown;
+    private final double downCooldown;
+
+    private int aboveCount;
+    private int belowCount;
+
+    public HysteresisScalingPolicy(double highThreshold,
+                                   double lowThreshold,
+                                   int minVms,
+                                   int maxVms,
+                                   int scaleStepUp,
+                                   int scaleStepDown,
+                                   int breachEvaluations,
+                                   double upCooldown,
+                                   double downCooldown) {
+        this.highThreshold = highThreshold;
+        this.lowThreshold = lowThreshold;
+        this.minVms = minVms;
+        this.maxVms = maxVms;
+        this.scaleStepUp = scaleStepUp;
+        this.scaleStepDown = scaleStepDown;
+        this.breachEvaluations = Math.max(1, breachEvaluations);
+        this.upCooldown = upCooldown;
+        this.downCooldown = downCooldown;
+    }
+
+    @Override
+    public int decideVmCount(ScalingMetrics metrics) {
+        double cpu = metrics.signal();   // bottleneck resource
+        int current = metrics.getVmCount();
+        if (Double.isNaN(cpu)) {
+            return current;
+        }
+
+        aboveCount = (cpu > highThreshold) ? aboveCount + 1 : 0;
+        belowCount = (cpu < lowThreshold) ? belowCount + 1 : 0;
+        double sinceLast = metrics.getTimeSinceLastAction();
+
+        // Scale up
+        if (aboveCount >= breachEvaluations && sinceLast >= upCooldown && current < maxVms) {
+            aboveCount = 0;
+            return Math.min(maxVms, current + scaleStepUp);
+        }
+
+        // Scale down (only if the survivors would not cross highThreshold)
+        if (belowCount >= breachEvaluations && sinceLast >= downCooldown && current > minVms) {
+            int next = Math.max(minVms, current - scaleStepDown);
+            double projected = cpu * current / next;
+            if (projected < highThreshold) {
+                belowCount = 0;
+                return next;
+            }
+        }
+
+        return Math.max(minVms, Math.min(maxVms, current));
+    }
+
+    // Breach counters (checkpoint)
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(aboveCount);
+        out.writeInt(belowCount);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        aboveCount = in.readInt();
+        belowCount = in.readInt();
+    }
+}
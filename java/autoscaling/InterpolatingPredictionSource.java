@@ -0,0 +1,316 @@
+package autoscaling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Prediction source that fills missing slots from neighbouring predictions
+ * (predictions.interpolate=linear | last).
+ *
+ * Logic:
+ * - a slot with a prediction is returned as is (EXACT)
+ * - a missing slot is resolved from the nearest earlier / later slots with
+ *   a prediction, at most maxGap slots away (INTERPOLATED): linear blends
+ *   the two by distance, last takes the earlier one; linear with only one
+ *   neighbour in range uses that one
+ * - otherwise the slot stays missing (NaN / -1, MISSING)
+ * - each VM remembers the last neighbour pair it found (every slot between
+ *   them is missing), so the following ticks inside the same gap resolve
+ *   in O(1) instead of probing again; last never reads past the slot and
+ *   remembers the earlier neighbour and the end of the gap seen so far,
+ *   so a tick further into the gap only probes the slots since then
+ *
+ * Memory / network / disk follow the CPU resolution: same neighbours and
+ * weight.
+ *
+ * lastResolution() tells how the most recent lookup was answered; get()
+ * marks interpolated records. The 0/1 flags take the nearer neighbour
+ * and reuse the resolution of the preceding predCpuAt for the same
+ * (index, slot). A checkpoint carries the wrapped source's cursor (the
+ * neighbour cache is rebuilt). Not thread-safe: one instance per reader (e.g. per region).
+ */
+public final class InterpolatingPredictionSource implements PredictionSource, Checkpointable, AutoCloseable {
+
+    public static final int EXACT = 0;
+    public static final int INTERPOLATED = 1;
+    public static final int MISSING = 2;
+
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final PredictionSource source;
+    private final boolean linear;
+    private final int maxGap;
+
+    // Per-VM neighbour cache (dense index): slots strictly between lo and hi are missing
+    private int[] cacheLo = new int[0];
+    private int[] cacheHi = new int[0];
+
+    // Last resolved (index, slot)
+    private int lastIndex = -1;
+    private int lastSlot;
+    private int kind = MISSING;
+    private int lo;           // earlier neighbour slot, or NONE
+    private int hi;           // later neighbour slot, or NONE
+    private double weight;    // share of hi in the blend
+    private double predCpu;
+
+    // Statistics
+    private long exactCount;
+    private long interpolatedCount;
+    private long missingCount;
+    private long cacheHits;
+
+    /**
+     * @param linear true: linear interpolation, false: last value
+     * @param maxGap farthest neighbour (in slots) used to fill a missing slot
+     */
+    public InterpolatingPredictionSource(PredictionSource source, boolean linear, int maxGap) {
+        if (maxGap < 1) {
+            throw new IllegalArgumentException("maxGap must be >= 1: " + maxGap);
+        }
+        this.source = source;
+        this.linear = linear;
+        this.maxGap = maxGap;
+    }
+
+    /** EXACT, INTERPOLATED or MISSING for the most recent lookup. */
+    public int lastResolution() { return kind; }
+
+    public long exactCount() { return exactCount; }
+    public long interpolatedCount() { return interpolatedCount; }
+    public long missingCount() { return missingCount; }
+    public long cacheHits() { return cacheHits; }
+
+    // ------------ PredictionSource ------------
+
+    @Override
+    public int vmCount() { return source.vmCount(); }
+
+    @Override
+    public int vmIdAt(int index) { return source.vmIdAt(index); }
+
+    @Override
+    public int indexOf(int vmId) { return source.indexOf(vmId); }
+
+    @Override
+    public int firstSlotAt(int index) { return source.firstSlotAt(index); }
+
+    @Override
+    public double predCpuAt(int index, int slot) {
+        lastIndex = -1;     // always a fresh lookup (counted); the flags reuse it
+        resolve(index, slot);
+        return predCpu;
+    }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) {
+        resolve(index, slot);
+        switch (kind) {
+            case EXACT: return source.predHighLoadAt(index, slot);
+            case INTERPOLATED: return source.predHighLoadAt(index, nearest());
+            default: return -1;
+        }
+    }
+
+    @Override
+    public double targetCpuAt(int index, int slot) {
+        resolve(index, slot);
+        switch (kind) {
+            case EXACT: return source.targetCpuAt(index, slot);
+            case INTERPOLATED:
+                return blend(lo == NONE ? Double.NaN : source.targetCpuAt(index, lo),
+                             hi == NONE ? Double.NaN : source.targetCpuAt(index, hi));
+            default: return Double.NaN;
+        }
+    }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) {
+        resolve(index, slot);
+        switch (kind) {
+            case EXACT: return source.targetHighLoadAt(index, slot);
+            case INTERPOLATED: return source.targetHighLoadAt(index, nearest());
+            default: return -1;
+        }
+    }
+
+    @Override
+    public boolean hasResource(Resource r) { return source.hasResource(r); }
+
+    @Override
+    public double predAt(Resource r, int index, int slot) {
+        if (r == Resource.CPU) return predCpuAt(index, slot);
+        resolve(index, slot);
+        switch (kind) {
+            case EXACT: return source.predAt(r, index, slot);
+            case INTERPOLATED:
+                return blend(lo == NONE ? Double.NaN : source.predAt(r, index, lo),
+                             hi == NONE ? Double.NaN : source.predAt(r, index, hi));
+            default: return Double.NaN;
+        }
+    }
+
+    @Override
+    public double targetAt(Resource r, int index, int slot) {
+        if (r == Resource.CPU) return targetCpuAt(index, slot);
+        resolve(index, slot);
+        switch (kind) {
+            case EXACT: return source.targetAt(r, index, slot);
+            case INTERPOLATED:
+                return blend(lo == NONE ? Double.NaN : source.targetAt(r, index, lo),
+                             hi == NONE ? Double.NaN : source.targetAt(r, index, hi));
+            default: return Double.NaN;
+        }
+    }
+
+    /** As PredictionSource.get, with interpolated records marked as such. */
+    @Override
+    public PredictionRecord get(int vmId, int slot) {
+        int idx = indexOf(vmId);
+        if (idx < 0) return null;
+        double pred = predCpuAt(idx, slot);
+        if (Double.isNaN(pred)) return null;
+        return new PredictionRecord(
+                slot, vmId,
+                targetCpuAt(idx, slot), targetHighLoadAt(idx, slot),
+                pred, predHighLoadAt(idx, slot),
+                kind == EXACT, PredictionRecord.extras(this, idx, slot)
+        );
+    }
+
+    @Override
+    public void close() {
+        if (source instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) source).close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to close prediction source: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // ------------ Checkpoint ------------
+
+    /** The wrapped source's state, if it has any (flag + state). */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        boolean has = source instanceof Checkpointable;
+        out.writeBoolean(has);
+        if (has) {
+            ((Checkpointable) source).writeState(out);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        if (in.readBoolean()) {
+            if (!(source instanceof Checkpointable)) {
+                throw new IOException("checkpoint has a prediction cursor but the source has none");
+            }
+            ((Checkpointable) source).readState(in);
+        }
+        Arrays.fill(cacheLo, NONE);
+        Arrays.fill(cacheHi, NONE);
+        lastIndex = -1;
+    }
+
+    // ------------ Resolution ------------
+
+    private void resolve(int index, int slot) {
+        if (index == lastIndex && slot == lastSlot) {
+            return;
+        }
+        lastIndex = index;
+        lastSlot = slot;
+
+        double v = source.predCpuAt(index, slot);
+        if (v == v) { // not NaN
+            kind = EXACT;
+            predCpu = v;
+            exactCount++;
+            return;
+        }
+
+        // 1) Neighbours: cached pair if the slot lies between them, else probe
+        if (index >= cacheLo.length) {
+            growCache(index + 1);
+        }
+        int l = cacheLo[index];
+        int h = cacheHi[index];
+        if (l != NONE && h != NONE && l < slot && slot < h) {
+            cacheHits++;
+        } else if (linear) {
+            l = NONE;
+            for (int s = slot - 1; s >= slot - maxGap; s--) {
+                if (present(index, s)) { l = s; break; }
+            }
+            h = NONE;
+            for (int s = slot + 1; s <= slot + maxGap; s++) {
+                if (present(index, s)) { h = s; break; }
+            }
+            cacheLo[index] = l;
+            cacheHi[index] = h;
+        } else {
+            // Last value never looks ahead: probe back to the gap seen last
+            // time (still missing up to its end, if within maxGap), then
+            // cache (l, slot] as the gap
+            int known = (l != NONE && h != NONE && l < slot && h >= slot - maxGap) ? h : NONE;
+            int found = NONE;
+            for (int s = slot - 1; s >= slot - maxGap && s >= known; s--) {
+                if (present(index, s)) { found = s; break; }
+            }
+            l = (found != NONE || known == NONE) ? found : l;
+            h = NONE;
+            cacheLo[index] = l;
+            cacheHi[index] = (l == NONE) ? NONE : slot + 1;
+        }
+
+        // 2) Only neighbours within maxGap of this slot; last value only uses
+        //    the earlier one (its cached hi is the end of the gap, not a slot)
+        if (l != NONE && slot - l > maxGap) l = NONE;
+        if (h != NONE && (h - slot > maxGap || !linear)) h = NONE;
+        if (l == NONE && h == NONE) {
+            kind = MISSING;
+            predCpu = Double.NaN;
+            missingCount++;
+            return;
+        }
+
+        // 3) Blend
+        kind = INTERPOLATED;
+        lo = l;
+        hi = h;
+        weight = (l == NONE) ? 1.0 : (h == NONE) ? 0.0 : (double) (slot - l) / (h - l);
+        predCpu = blend(l == NONE ? Double.NaN : source.predCpuAt(index, l),
+                        h == NONE ? Double.NaN : source.predCpuAt(index, h));
+        interpolatedCount++;
+    }
+
+    private boolean present(int index, int slot) {
+        double v = source.predCpuAt(index, slot);
+        return v == v;
+    }
+
+    private double blend(double a, double b) {
+        if (weight == 0.0) return a;
+        if (weight == 1.0) return b;
+        return a + (b - a) * weight;
+    }
+
+    private int nearest() {
+        return (weight <= 0.5) ? lo : hi;
+    }
+
+    private void growCache(int size) {
+        int old = cacheLo.length;
+        int cap = Math.max(size, old * 2);
+        cacheLo = Arrays.copyOf(cacheLo, cap);
+        cacheHi = Arrays.copyOf(cacheHi, cap);
+        Arrays.fill(cacheLo, old, cap, NONE);
+        Arrays.fill(cacheHi, old, cap, NONE);
+    }
+}
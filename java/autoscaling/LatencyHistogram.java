@@ -0,0 +1,96 @@
+package autoscaling;
+
+/**
+ * Fixed-size latency histogram with HdrHistogram-style log-linear buckets.
+ *
+ * Values (nanoseconds) below 128 get one bucket each; above that every
+ * power of two is split into 64 linear sub-buckets, so any recorded value
+ * is reported within 1/64 (~1.6%) of its true value. Values above 2^40 ns
+ * (~18 minutes) are clamped.
+ *
+ * record() is a couple of shifts and an array increment: no allocation,
+ * no locking (single writer).
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;                  // 64 sub-buckets per power of two
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+    private static final int BUCKETS = (MAX_BITS - SUB_BITS) * SUB_COUNT + 2 * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public void record(long value) {
+        long v = (value < 0) ? 0 : Math.min(value, MAX_VALUE);
+        counts[index(v)]++;
+        count++;
+        sum += v;
+        if (v < min) min = v;
+        if (v > max) max = v;
+    }
+
+    /** Add every value recorded in other (e.g. an interval into a run total). */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0L);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long count() { return count; }
+    public long min() { return count == 0 ? 0 : min; }
+    public long max() { return max; }
+    public double mean() { return count == 0 ? 0.0 : (double) sum / count; }
+
+    /** Value at the given percentile (0..100): upper edge of the bucket holding it. */
+    public long percentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max);
+            }
+        }
+        return max;
+    }
+
+    // ------------ Bucket mapping ------------
+
+    private static int index(long v) {
+        if (v < 2 * SUB_COUNT) {
+            return (int) v;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        // v >> shift is in [SUB_COUNT, 2 * SUB_COUNT)
+        return (shift << SUB_BITS) + (int) (v >>> shift);
+    }
+
+    private static long highestEquivalent(int index) {
+        if (index < 2 * SUB_COUNT) {
+            return index;
+        }
+        int shift = (index >> SUB_BITS) - 1;
+        long sub = index - ((long) shift << SUB_BITS);
+        return ((sub + 1) << shift) - 1;
+    }
+}
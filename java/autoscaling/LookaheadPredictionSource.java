@@ -0,0 +1,166 @@
+package autoscaling;
+
+import java.util.Arrays;
+
+/**
+ * Prediction view for lead-time provisioning: the prediction of a slot is
+ * the maximum over that slot and the next k slots, so capacity is asked
+ * for k slots before a forecast spike (enough to boot the VMs) and kept
+ * until the spike has passed.
+ *
+ * Logic:
+ * - one monotonic deque per VM and resource (slots with decreasing
+ *   predictions): a new slot pops the smaller values from the back, the
+ *   front is the window maximum, slots behind the window leave from the
+ *   front; each slot is read from the source once, so a VM moving forward
+ *   one slot at a time costs O(1) amortised
+ * - asking for the same slot again (ticks inside one slot) is a lookup
+ * - a slot behind the VM's window, or past the slots already read, starts
+ *   the window again (O(k) for that call)
+ * - missing slots are skipped; a window without any prediction is NaN
+ *
+ * Targets and 0/1 flags are not windowed: they stay those of the slot
+ * itself. Over a streaming source k must stay within its lookahead.
+ * Not thread-safe: one instance per reader.
+ */
+public final class LookaheadPredictionSource implements PredictionSource {
+
+    private final PredictionSource source;
+    private final int k;
+    private final Window[] windows = new Window[Resource.values().length];
+
+    /** @param k slots looked ahead (window = slot .. slot + k) */
+    public LookaheadPredictionSource(PredictionSource source, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("lookahead must be >= 0: " + k);
+        }
+        this.source = source;
+        this.k = k;
+    }
+
+    public int lookahead() { return k; }
+
+    // ------------ PredictionSource ------------
+
+    @Override
+    public int vmCount() { return source.vmCount(); }
+
+    @Override
+    public int vmIdAt(int index) { return source.vmIdAt(index); }
+
+    @Override
+    public int indexOf(int vmId) { return source.indexOf(vmId); }
+
+    @Override
+    public int firstSlotAt(int index) { return source.firstSlotAt(index); }
+
+    @Override
+    public double predCpuAt(int index, int slot) {
+        return window(Resource.CPU).max(index, slot);
+    }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) { return source.predHighLoadAt(index, slot); }
+
+    @Override
+    public double targetCpuAt(int index, int slot) { return source.targetCpuAt(index, slot); }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) { return source.targetHighLoadAt(index, slot); }
+
+    @Override
+    public boolean hasResource(Resource r) { return source.hasResource(r); }
+
+    @Override
+    public double predAt(Resource r, int index, int slot) {
+        return source.hasResource(r) ? window(r).max(index, slot) : Double.NaN;
+    }
+
+    @Override
+    public double targetAt(Resource r, int index, int slot) { return source.targetAt(r, index, slot); }
+
+    private Window window(Resource r) {
+        Window w = windows[r.ordinal()];
+        if (w == null) {
+            w = new Window(r);
+            windows[r.ordinal()] = w;
+        }
+        return w;
+    }
+
+    /** Sliding-window maxima of one resource, one ring-buffer deque per VM. */
+    private final class Window {
+
+        private final Resource resource;
+        private final int capacity = k + 1;
+
+        // Per VM (dense index); rings allocated on the VM's first query
+        private int[][] slots = new int[0][];
+        private double[][] values = new double[0][];
+        private int[] head = new int[0];
+        private int[] size = new int[0];
+        private int[] start = new int[0];   // slot of the last query
+        private int[] next = new int[0];    // next slot to read from the source
+
+        Window(Resource resource) {
+            this.resource = resource;
+        }
+
+        double max(int index, int slot) {
+            if (index >= slots.length) {
+                grow(index + 1);
+            }
+            if (slots[index] == null) {
+                slots[index] = new int[capacity];
+                values[index] = new double[capacity];
+                restart(index, slot);
+            } else if (slot < start[index] || slot > next[index]) {
+                restart(index, slot);
+            }
+            start[index] = slot;
+
+            int[] ss = slots[index];
+            double[] vs = values[index];
+            // 1) Drop slots behind the window from the front
+            while (size[index] > 0 && ss[head[index]] < slot) {
+                head[index] = (head[index] + 1) % capacity;
+                size[index]--;
+            }
+            // 2) Read the new slots at the end of the window
+            long end = (long) slot + k;
+            while (next[index] <= end) {
+                int s = next[index]++;
+                double v = resource == Resource.CPU
+                        ? source.predCpuAt(index, s)
+                        : source.predAt(resource, index, s);
+                if (v != v) {
+                    continue;   // missing
+                }
+                while (size[index] > 0 && vs[(head[index] + size[index] - 1) % capacity] <= v) {
+                    size[index]--;
+                }
+                int tail = (head[index] + size[index]) % capacity;
+                ss[tail] = s;
+                vs[tail] = v;
+                size[index]++;
+            }
+            return size[index] == 0 ? Double.NaN : vs[head[index]];
+        }
+
+        private void restart(int index, int slot) {
+            head[index] = 0;
+            size[index] = 0;
+            next[index] = slot;
+        }
+
+        private void grow(int n) {
+            n = Math.max(n, slots.length * 2);
+            slots = Arrays.copyOf(slots, n);
+            values = Arrays.copyOf(values, n);
+            head = Arrays.copyOf(head, n);
+            size = Arrays.copyOf(size, n);
+            start = Arrays.copyOf(start, n);
+            next = Arrays.copyOf(next, n);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package autoscaling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static autoscaling.PredictionBinaryFormat.*;
+
+/**
+ * Prediction table served straight from a memory-mapped binary file
+ * (see {@link PredictionBinaryFormat}).
+ *
+ * Only the per-VM index is copied to the heap; every lookup reads the
+ * mapped pages directly. Files larger than 2 GB are mapped as several
+ * segments whose size is a multiple of the record size, so a record never
+ * straddles two segments.
+ */
+public final class MappedPredictionStore implements PredictionSource {
+
+    // 2^25 records (768 MiB) per mapped segment
+    private static final int SEGMENT_SHIFT = 25;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final IntIndexMap vmIndex;
+    private final int[] vmIds;
+    private final int[] firstSlot;
+    private final int[] slotCount;
+    private final long[] firstRecord;
+    private final ByteBuffer[] segments;
+    private final long rowCount;
+
+    private MappedPredictionStore(IntIndexMap vmIndex, int[] vmIds, int[] firstSlot, int[] slotCount,
+                                  long[] firstRecord, ByteBuffer[] segments, long rowCount) {
+        this.vmIndex = vmIndex;
+        this.vmIds = vmIds;
+        this.firstSlot = firstSlot;
+        this.slotCount = slotCount;
+        this.firstRecord = firstRecord;
+        this.segments = segments;
+        this.rowCount = rowCount;
+    }
+
+    public static MappedPredictionStore open(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            if (header.getLong(0) != MAGIC) {
+                throw new RuntimeException("Not a prediction binary file: " + path);
+            }
+            int version = header.getInt(8);
+            int recordSize = header.getInt(12);
+            if (version != VERSION || recordSize != RECORD_SIZE) {
+                throw new RuntimeException("Unsupported prediction binary version "
+                        + version + " (record size " + recordSize + "): " + path);
+            }
+            int vmCount = header.getInt(16);
+            long rowCount = header.getLong(24);
+            long indexOffset = header.getLong(32);
+            long dataOffset = header.getLong(40);
+
+            // Per-VM index -> primitive arrays
+            ByteBuffer index = ch.map(FileChannel.MapMode.READ_ONLY, indexOffset,
+                    (long) vmCount * INDEX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            IntIndexMap map = new IntIndexMap(vmCount);
+            int[] ids = new int[vmCount];
+            int[] first = new int[vmCount];
+            int[] counts = new int[vmCount];
+            long[] records = new long[vmCount];
+            long totalRecords = 0;
+            for (int i = 0; i < vmCount; i++) {
+                int base = i * INDEX_ENTRY_SIZE;
+                ids[i] = index.getInt(base);
+                first[i] = index.getInt(base + 4);
+                counts[i] = index.getInt(base + 8);
+                records[i] = index.getLong(base + 16);
+                totalRecords = Math.max(totalRecords, records[i] + counts[i]);
+                map.put(ids[i], i);
+            }
+
+            long dataBytes = totalRecords * RECORD_SIZE;
+            if (dataOffset + dataBytes > ch.size()) {
+                throw new RuntimeException("Truncated prediction binary file: " + path);
+            }
+
+            // Data segments
+            long segmentBytes = (SEGMENT_MASK + 1) * RECORD_SIZE;
+            int segmentCount = (int) ((dataBytes + segmentBytes - 1) / segmentBytes);
+            ByteBuffer[] segments = new ByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long offset = (long) s * segmentBytes;
+                long length = Math.min(segmentBytes, dataBytes - offset);
+                segments[s] = ch.map(FileChannel.MapMode.READ_ONLY, dataOffset + offset, length)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            return new MappedPredictionStore(map, ids, first, counts, records, segments, rowCount);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to map prediction binary: " + e.getMessage(), e);
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    // ------------ PredictionSource ------------
+
+    @Override
+    public int vmCount() { return vmIds.length; }
+
+    @Override
+    public int vmIdAt(int index) { return vmIds[index]; }
+
+    @Override
+    public int indexOf(int vmId) { return vmIndex.get(vmId); }
+
+    @Override
+    public int firstSlotAt(int index) { return firstSlot[index]; }
+
+    public int slotCountAt(int index) { return slotCount[index]; }
+
+    @Override
+    public double predCpuAt(int index, int slot) {
+        long rec = record(index, slot);
+        return rec < 0 ? Double.NaN : segment(rec).getDouble(offset(rec) + OFF_PRED_CPU);
+    }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) {
+        long rec = present(index, slot);
+        return rec < 0 ? -1 : segment(rec).get(offset(rec) + OFF_PRED_HIGH);
+    }
+
+    @Override
+    public double targetCpuAt(int index, int slot) {
+        long rec = present(index, slot);
+        return rec < 0 ? Double.NaN : segment(rec).getDouble(offset(rec) + OFF_TARGET_CPU);
+    }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) {
+        long rec = present(index, slot);
+        return rec < 0 ? -1 : segment(rec).get(offset(rec) + OFF_TARGET_HIGH);
+    }
+
+    // ------------ Record addressing ------------
+
+    /** Global record number for (index, slot), or -1 if outside the VM's range. */
+    private long record(int index, int slot) {
+        int pos = slot - firstSlot[index];
+        if (pos < 0 || pos >= slotCount[index]) return -1;
+        return firstRecord[index] + pos;
+    }
+
+    /** Like record(), but also -1 when the row is a gap (predCpu NaN). */
+    private long present(int index, int slot) {
+        long rec = record(index, slot);
+        if (rec < 0 || Double.isNaN(segment(rec).getDouble(offset(rec) + OFF_PRED_CPU))) return -1;
+        return rec;
+    }
+
+    private ByteBuffer segment(long rec) {
+        return segments[(int) (rec >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long rec) {
+        return (int) (rec & SEGMENT_MASK) * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,25 @@
+package autoscaling;
+
+/**
+ * Forecaster that learns online from one or more utilisation series
+ * (one per VM), instead of replaying a precomputed predictions CSV.
+ *
+ * Series are addressed by a small non-negative index (e.g. a dense index of the live VMs);
+ * state is kept in primitive arrays that grow with the largest index.
+ * Every observe() is O(1) per series for a fixed model size.
+ * Implementations are not thread-safe.
+ */
+public interface OnlineForecaster {
+
+    /** Feed the next value of a series (one step later than the previous one). */
+    void observe(int series, double value);
+
+    /** Forecast horizon (>= 1) steps past the last observation; NaN before the first one. */
+    double forecast(int series, int horizon);
+
+    /** Forget a series (e.g. its VM was destroyed). */
+    void reset(int series);
+
+    /** Short name for logs and benchmarks. */
+    String name();
+}
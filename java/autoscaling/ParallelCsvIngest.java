@@ -0,0 +1,190 @@
+package autoscaling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel, chunked ingestion of the predictions CSV.
+ *
+ * The file (minus the header line) is cut into byte ranges whose
+ * boundaries are moved forward to the next '\n', so every range holds
+ * whole lines. Each range is memory-mapped and parsed on a fork-join
+ * worker with CsvRowParser into its own builder; the builders are then
+ * merged in file order. Malformed rows are counted and skipped.
+ */
+public final class ParallelCsvIngest {
+
+    private static final long MIN_CHUNK = 1L << 20;     // 1 MiB
+    private static final long MAX_CHUNK = 256L << 20;   // 256 MiB
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final int parallelism;
+
+    // Stats of the last ingest
+    private long rows;
+    private long malformed;
+    private long firstMalformedOffset = -1;
+    private double seconds;
+
+    public ParallelCsvIngest() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelCsvIngest(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public ColumnarPredictionStore ingest(String csvPath) {
+        long start = System.nanoTime();
+        Path path = Path.of(csvPath);
+
+        ColumnarPredictionStore.Builder merged = new ColumnarPredictionStore.Builder();
+        rows = 0;
+        malformed = 0;
+        firstMalformedOffset = -1;
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long dataStart = nextLineStart(ch, 0, size);
+            if (dataStart == 0 && size == 0) {
+                throw new RuntimeException("CSV is empty: " + csvPath);
+            }
+
+            List<ChunkTask> tasks = new ArrayList<>();
+            long chunk = chunkSize(size - dataStart);
+            long from = dataStart;
+            while (from < size) {
+                long to = (from + chunk >= size) ? size : nextLineStart(ch, from + chunk, size);
+                tasks.add(new ChunkTask(ch, from, to));
+                from = to;
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> ChunkTask.invokeAll(tasks)).join();
+            } finally {
+                pool.shutdown();
+            }
+
+            // Merge in file order so duplicate rows keep "last one wins"
+            for (ChunkTask task : tasks) {
+                ChunkResult r = task.join();
+                merged.addAll(r.builder);
+                rows += r.rows;
+                malformed += r.malformed;
+                if (firstMalformedOffset < 0 && r.firstMalformedOffset >= 0) {
+                    firstMalformedOffset = r.firstMalformedOffset;
+                }
+            }
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load CSV: " + e.getMessage(), e);
+        }
+
+        ColumnarPredictionStore store = merged.build();
+        seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Parsed %d rows (%d malformed) in %.2f s, %.0f rows/s, %d workers%n",
+                rows, malformed, seconds, rowsPerSecond(), parallelism);
+        if (malformed > 0) {
+            System.out.println("First malformed row at byte offset " + firstMalformedOffset);
+        }
+        return store;
+    }
+
+    public long rows() { return rows; }
+    public long malformedRows() { return malformed; }
+    public double seconds() { return seconds; }
+    public double rowsPerSecond() { return seconds > 0 ? rows / seconds : 0.0; }
+
+    private long chunkSize(long dataBytes) {
+        long target = dataBytes / ((long) parallelism * CHUNKS_PER_WORKER) + 1;
+        return Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, target));
+    }
+
+    /** Offset of the first byte after the next '\n' at or after from (or size). */
+    private static long nextLineStart(FileChannel ch, long from, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long offset = from;
+        while (offset < size) {
+            buf.clear();
+            int n = ch.read(buf, offset);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') return offset + i + 1;
+            }
+            offset += n;
+        }
+        return size;
+    }
+
+    // ------------ Per-chunk work ------------
+
+    private static final class ChunkResult {
+        final ColumnarPredictionStore.Builder builder = new ColumnarPredictionStore.Builder();
+        long rows;
+        long malformed;
+        long firstMalformedOffset = -1;
+    }
+
+    private static final class ChunkTask extends RecursiveTask<ChunkResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel ch;
+        private final long from;
+        private final long to;
+
+        ChunkTask(FileChannel ch, long from, long to) {
+            this.ch = ch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            ChunkResult result = new ChunkResult();
+            CsvRowParser parser = new CsvRowParser();
+            MappedByteBuffer buf;
+            try {
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to map CSV range: " + e.getMessage(), e);
+            }
+
+            int limit = buf.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+
+                if (lineEnd > lineStart && !(lineEnd - lineStart == 1 && buf.get(lineStart) == '\r')) {
+                    if (parser.parse(buf, lineStart, lineEnd)) {
+                        result.builder.add(parser.slot, parser.vmId,
+                                parser.targetCpuFuture, parser.targetHighLoad,
+                                parser.predCpuFuture, parser.predHighLoad);
+                        for (int x = 0; 2 * x + 1 < parser.extraFields; x++) {
+                            result.builder.extra(Resource.EXTRA[x],
+                                    parser.extras[2 * x], parser.extras[2 * x + 1]);
+                        }
+                        result.rows++;
+                    } else {
+                        if (result.firstMalformedOffset < 0) {
+                            result.firstMalformedOffset = from + lineStart;
+                        }
+                        result.malformed++;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            return result;
+        }
+    }
+}
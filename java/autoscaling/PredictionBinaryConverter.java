@@ -0,0 +1,44 @@
+package autoscaling;
+
+import java.nio.file.Path;
+
+/**
+ * One-time converter: predictions CSV -> fixed-width binary file.
+ *
+ * Usage: PredictionBinaryConverter <predictions.csv> [output.bin]
+ * Without an output path the file is written next to the CSV
+ * (same name, .bin extension), where PredictionLoader picks it up.
+ * The binary layout is CPU-only: tables with memory / network / disk
+ * columns are refused (PredictionLoader would silently drop them).
+ */
+public class PredictionBinaryConverter {
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: PredictionBinaryConverter <predictions.csv> [output.bin]");
+            return;
+        }
+
+        String csvPath = args[0];
+        Path out = (args.length > 1) ? Path.of(args[1]) : PredictionBinaryFormat.binaryPathFor(csvPath);
+
+        ColumnarPredictionStore store = PredictionLoader.loadCsv(csvPath);
+        for (Resource r : Resource.EXTRA) {
+            if (store.hasResource(r)) {
+                throw new IllegalArgumentException("Binary predictions are CPU-only but " + csvPath
+                        + " has " + r.column() + " columns; load the CSV directly");
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            PredictionBinaryFormat.write(store, out);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to write binary predictions: " + e.getMessage(), e);
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Wrote %d rows for %d VMs to %s in %.2f s%n",
+                store.rowCount(), store.vmCount(), out, secs);
+    }
+}
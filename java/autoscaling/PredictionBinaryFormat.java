@@ -0,0 +1,129 @@
+package autoscaling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-width binary layout of the predictions table (little-endian).
+ *
+ * Header (64 bytes):
+ *   long  magic          "BBPRED01"
+ *   int   version
+ *   int   recordSize     (24)
+ *   int   vmCount
+ *   int   reserved
+ *   long  rowCount
+ *   long  indexOffset    (= 64)
+ *   long  dataOffset     (page aligned)
+ *   8 bytes reserved
+ *
+ * Per-VM index (24 bytes per VM, in column order):
+ *   int vmId, int firstSlot, int slotCount, int reserved, long firstRecord
+ *
+ * Data: one 24-byte record per (vm, slot offset), VMs back to back:
+ *   double predCpu (NaN = missing row), double targetCpu,
+ *   byte predHighLoad, byte targetHighLoad, 6 bytes padding
+ */
+public final class PredictionBinaryFormat {
+
+    public static final long MAGIC = 0x3130444552504242L; // "BBPRED01" read as little-endian
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int INDEX_ENTRY_SIZE = 24;
+    public static final int RECORD_SIZE = 24;
+
+    // Offsets inside a data record
+    static final int OFF_PRED_CPU = 0;
+    static final int OFF_TARGET_CPU = 8;
+    static final int OFF_PRED_HIGH = 16;
+    static final int OFF_TARGET_HIGH = 17;
+
+    private static final int PAGE = 4096;
+
+    private PredictionBinaryFormat() {
+    }
+
+    /** Binary file expected next to a CSV: same name with a .bin extension. */
+    public static Path binaryPathFor(String csvPath) {
+        String bin = csvPath.endsWith(".csv")
+                ? csvPath.substring(0, csvPath.length() - 4) + ".bin"
+                : csvPath + ".bin";
+        return Path.of(bin);
+    }
+
+    /** Write a columnar table to the binary layout. */
+    public static void write(ColumnarPredictionStore store, Path out) throws IOException {
+        int vmCount = store.vmCount();
+        long indexOffset = HEADER_SIZE;
+        long dataOffset = align(indexOffset + (long) vmCount * INDEX_ENTRY_SIZE, PAGE);
+
+        try (FileChannel ch = FileChannel.open(out,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+
+            // Header + index
+            ByteBuffer head = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+            head.putLong(MAGIC);
+            head.putInt(VERSION);
+            head.putInt(RECORD_SIZE);
+            head.putInt(vmCount);
+            head.putInt(0);
+            head.putLong(store.rowCount());
+            head.putLong(indexOffset);
+            head.putLong(dataOffset);
+            head.position((int) indexOffset);
+
+            long record = 0;
+            for (int i = 0; i < vmCount; i++) {
+                int slotCount = store.slotCountAt(i);
+                head.putInt(store.vmIdAt(i));
+                head.putInt(store.firstSlotAt(i));
+                head.putInt(slotCount);
+                head.putInt(0);
+                head.putLong(record);
+                record += slotCount;
+            }
+            head.position(0);
+            writeFully(ch, head);
+
+            // Data records, written through a reusable 1 MiB buffer
+            ByteBuffer buf = ByteBuffer.allocateDirect(RECORD_SIZE * 43_690).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < vmCount; i++) {
+                int first = store.firstSlotAt(i);
+                int slotCount = store.slotCountAt(i);
+                for (int pos = 0; pos < slotCount; pos++) {
+                    if (buf.remaining() < RECORD_SIZE) {
+                        buf.flip();
+                        writeFully(ch, buf);
+                        buf.clear();
+                    }
+                    int slot = first + pos;
+                    double pred = store.predCpuAt(i, slot);
+                    buf.putDouble(pred);
+                    buf.putDouble(store.targetCpuAt(i, slot));
+                    buf.put((byte) Math.max(0, store.predHighLoadAt(i, slot)));
+                    buf.put((byte) Math.max(0, store.targetHighLoadAt(i, slot)));
+                    buf.putInt(0);
+                    buf.putShort((short) 0);
+                }
+            }
+            buf.flip();
+            writeFully(ch, buf);
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    static long align(long value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+}
@@ -1,58 +1,67 @@
 package autoscaling;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.nio.file.Path;
 
+/**
+ * Loads the ML predictions table.
+ *
+ * If a binary file produced by PredictionBinaryConverter exists next to
+ * the CSV (same name, .bin extension) and is not older than the CSV, it is
+ * memory-mapped instead of parsing the CSV.
+ */
 public class PredictionLoader {
 
-    // vmId -> (slot -> record)
-    private final Map<Integer, Map<Integer, PredictionRecord>> table = new HashMap<>();
+    // vmId -> slot lookups, either heap columns or a mapped binary file
+    private final PredictionSource source;
 
     public PredictionLoader(String csvPath) {
-        loadCsv(csvPath);
-    }
-
-    private void loadCsv(String path) {
-        System.out.println("Loading prediction CSV: " + path);
+        Path bin = PredictionBinaryFormat.binaryPathFor(csvPath);
+        File binFile = bin.toFile();
+        File csvFile = new File(csvPath);
 
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+        if (binFile.isFile() && (!csvFile.exists() || binFile.lastModified() >= csvFile.lastModified())) {
+            System.out.println("Mapping prediction binary: " + bin);
+            MappedPredictionStore mapped = MappedPredictionStore.open(bin);
+            System.out.println("Mapped predictions for VMs: " + mapped.vmCount());
+            this.source = mapped;
+        } else {
+            this.source = loadCsv(csvPath);
+        }
+    }
 
-            // Read header
-            String line = br.readLine();
-            if (line == null) {
-                throw new RuntimeException("CSV is empty: " + path);
-            }
+    /** Wrap an already opened source, e.g. a StreamingPredictionSource. */
+    public PredictionLoader(PredictionSource source) {
+        this.source = source;
+    }
 
-            // Read rows
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
+    static ColumnarPredictionStore loadCsv(String path) {
+        System.out.println("Loading prediction CSV: " + path);
 
-                int slot = Integer.parseInt(parts[0]);
-                int vmId = Integer.parseInt(parts[1]);
-                double targetCpuFuture = Double.parseDouble(parts[2]);
-                int targetHighLoad = Integer.parseInt(parts[3]);
-                double predCpuFuture = Double.parseDouble(parts[4]);
-                int predHighLoad = Integer.parseInt(parts[5]);
+        // Byte-range chunks parsed on fork-join workers; bad rows are counted, not fatal
+        ColumnarPredictionStore loaded = new ParallelCsvIngest().ingest(path);
 
-                PredictionRecord rec = new PredictionRecord(
-                        slot, vmId, targetCpuFuture, targetHighLoad, predCpuFuture, predHighLoad
-                );
+        System.out.println("Loaded predictions for VMs: " + loaded.vmCount());
+        return loaded;
+    }
 
-                table.computeIfAbsent(vmId, k -> new HashMap<>()).put(slot, rec);
-            }
+    /** Get prediction for (vmId, slot). Returns null if missing. */
+    public PredictionRecord get(int vmId, int slot) {
+        return source.get(vmId, slot);
+    }
 
-            System.out.println("Loaded predictions for VMs: " + table.size());
+    /** Predicted CPU for (vmId, slot) without allocating. NaN if missing. */
+    public double predCpu(int vmId, int slot) {
+        return source.predCpu(vmId, slot);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load CSV: " + e.getMessage(), e);
-        }
+    /** Predicted high-load flag for (vmId, slot). -1 if missing. */
+    public int predHighLoad(int vmId, int slot) {
+        return source.predHighLoad(vmId, slot);
     }
 
-    /** Get prediction for (vmId, slot). Returns null if missing. */
-    public PredictionRecord get(int vmId, int slot) {
-        Map<Integer, PredictionRecord> vmMap = table.get(vmId);
-        return (vmMap == null) ? null : vmMap.get(slot);
+    /** Underlying table (for fleet-wide scans). */
+    public PredictionSource source() {
+        return source;
     }
 }
@@ -1,5 +1,7 @@
 package autoscaling;
 
+import java.util.Arrays;
+
 public class PredictionRecord {
     private final int slot;
     private final int vmId;
@@ -7,6 +9,8 @@ public class PredictionRecord {
     private final int targetHighLoad;
     private final double predCpuFuture;
     private final int predHighLoad;
+    private final boolean exact;
+    private final double[] extras;   // target, pred per Resource.EXTRA; null = CPU only
 
     public PredictionRecord(
             int slot,
@@ -15,6 +19,34 @@ public class PredictionRecord {
             int targetHighLoad,
             double predCpuFuture,
             int predHighLoad) {
+        this(slot, vmId, targetCpuFuture, targetHighLoad, predCpuFuture, predHighLoad, true);
+    }
+
+    /** @param exact false if the values were interpolated from neighbouring slots */
+    public PredictionRecord(
+            int slot,
+            int vmId,
+            double targetCpuFuture,
+            int targetHighLoad,
+            double predCpuFuture,
+            int predHighLoad,
+            boolean exact) {
+        this(slot, vmId, targetCpuFuture, targetHighLoad, predCpuFuture, predHighLoad, exact, null);
+    }
+
+    /**
+     * @param extras target and predicted % of every Resource.EXTRA
+     *        (target at 2 * extraIndex, pred at 2 * extraIndex + 1), or null
+     */
+    public PredictionRecord(
+            int slot,
+            int vmId,
+            double targetCpuFuture,
+            int targetHighLoad,
+            double predCpuFuture,
+            int predHighLoad,
+            boolean exact,
+            double[] extras) {
 
         this.slot = slot;
         this.vmId = vmId;
@@ -22,6 +54,24 @@ public class PredictionRecord {
         this.targetHighLoad = targetHighLoad;
         this.predCpuFuture = predCpuFuture;
         this.predHighLoad = predHighLoad;
+        this.exact = exact;
+        this.extras = extras;
+    }
+
+    /** Extra-resource values of (index, slot) for the constructor, or null if the table has none. */
+    static double[] extras(PredictionSource source, int index, int slot) {
+        double[] out = null;
+        for (Resource r : Resource.EXTRA) {
+            if (source.hasResource(r)) {
+                if (out == null) {
+                    out = new double[2 * Resource.EXTRA.length];
+                    Arrays.fill(out, Double.NaN);
+                }
+                out[2 * r.extraIndex()] = source.targetAt(r, index, slot);
+                out[2 * r.extraIndex() + 1] = source.predAt(r, index, slot);
+            }
+        }
+        return out;
     }
 
     public int getSlot() { return slot; }
@@ -30,12 +80,29 @@ public class PredictionRecord {
     public int getTargetHighLoad() { return targetHighLoad; }
     public double getPredCpuFuture() { return predCpuFuture; }
     public int getPredHighLoad() { return predHighLoad; }
+    public boolean isExact() { return exact; }
+    public double getPredMemFuture() { return getPred(Resource.MEMORY); }
+    public double getTargetMemFuture() { return getTarget(Resource.MEMORY); }
+
+    /** Predicted utilisation % of r (NaN if the table has no such column). */
+    public double getPred(Resource r) {
+        if (r == Resource.CPU) return predCpuFuture;
+        return extras == null ? Double.NaN : extras[2 * r.extraIndex() + 1];
+    }
+
+    /** Actual future utilisation % of r (NaN if the table has no such column). */
+    public double getTarget(Resource r) {
+        if (r == Resource.CPU) return targetCpuFuture;
+        return extras == null ? Double.NaN : extras[2 * r.extraIndex()];
+    }
 
     @Override
     public String toString() {
         return "slot=" + slot +
                 ", vmId=" + vmId +
                 ", predCpuFuture=" + predCpuFuture +
-                ", predHighLoad=" + predHighLoad;
+                ", predHighLoad=" + predHighLoad +
+                (Double.isNaN(getPredMemFuture()) ? "" : ", predMemFuture=" + getPredMemFuture()) +
+                (exact ? "" : ", interpolated");
     }
 }
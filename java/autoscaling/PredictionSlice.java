@@ -0,0 +1,67 @@
+package autoscaling;
+
+/**
+ * Read-only view of a contiguous range of another source's VMs
+ * (indices [from, from + count)), e.g. one region's share of the table.
+ * Indices are re-based to 0; VM ids and slots are unchanged.
+ */
+public final class PredictionSlice implements PredictionSource {
+
+    private final PredictionSource source;
+    private final int from;
+    private final int count;
+
+    public PredictionSlice(PredictionSource source, int from, int count) {
+        if (from < 0 || count < 0 || from + count > source.vmCount()) {
+            throw new IllegalArgumentException("Slice [" + from + ", " + (from + count)
+                    + ") outside 0.." + source.vmCount());
+        }
+        this.source = source;
+        this.from = from;
+        this.count = count;
+    }
+
+    /** Slice k of n near-equal contiguous slices. */
+    public static PredictionSlice part(PredictionSource source, int k, int n) {
+        int vms = source.vmCount();
+        int start = (int) ((long) vms * k / n);
+        int end = (int) ((long) vms * (k + 1) / n);
+        return new PredictionSlice(source, start, end - start);
+    }
+
+    @Override
+    public int vmCount() { return count; }
+
+    @Override
+    public int vmIdAt(int index) { return source.vmIdAt(from + index); }
+
+    @Override
+    public int indexOf(int vmId) {
+        int i = source.indexOf(vmId);
+        return (i >= from && i < from + count) ? i - from : -1;
+    }
+
+    @Override
+    public int firstSlotAt(int index) { return source.firstSlotAt(from + index); }
+
+    @Override
+    public double predCpuAt(int index, int slot) { return source.predCpuAt(from + index, slot); }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) { return source.predHighLoadAt(from + index, slot); }
+
+    @Override
+    public double targetCpuAt(int index, int slot) { return source.targetCpuAt(from + index, slot); }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) { return source.targetHighLoadAt(from + index, slot); }
+
+    @Override
+    public boolean hasResource(Resource r) { return source.hasResource(r); }
+
+    @Override
+    public double predAt(Resource r, int index, int slot) { return source.predAt(r, from + index, slot); }
+
+    @Override
+    public double targetAt(Resource r, int index, int slot) { return source.targetAt(r, from + index, slot); }
+}
@@ -0,0 +1,99 @@
+package autoscaling;
+
+/**
+ * Read-only view of the prediction table.
+ *
+ * VMs are addressed either by vmId or by a dense index in [0, vmCount()).
+ * The primitive accessors return NaN / -1 for a missing (vmId, slot) and
+ * must not allocate, so they can be called on every clock tick.
+ *
+ * CPU is always there; memory, network and disk only in tables that carry
+ * them (hasResource), read through predAt / targetAt.
+ */
+public interface PredictionSource {
+
+    int vmCount();
+
+    int vmIdAt(int index);
+
+    /** Dense index of vmId, or -1 if the VM is unknown. */
+    int indexOf(int vmId);
+
+    /** First slot with data for the VM at index. */
+    int firstSlotAt(int index);
+
+    double predCpuAt(int index, int slot);
+
+    int predHighLoadAt(int index, int slot);
+
+    double targetCpuAt(int index, int slot);
+
+    int targetHighLoadAt(int index, int slot);
+
+    // ------------ Other resources ------------
+
+    /** True if the table has predictions for r (CPU always). */
+    default boolean hasResource(Resource r) {
+        return r == Resource.CPU;
+    }
+
+    /** Predicted utilisation % of r, or NaN if missing (or not in the table). */
+    default double predAt(Resource r, int index, int slot) {
+        return r == Resource.CPU ? predCpuAt(index, slot) : Double.NaN;
+    }
+
+    /** Actual future utilisation % of r, or NaN if missing (or not in the table). */
+    default double targetAt(Resource r, int index, int slot) {
+        return r == Resource.CPU ? targetCpuAt(index, slot) : Double.NaN;
+    }
+
+    // ------------ Lookup by vmId ------------
+
+    default boolean contains(int vmId, int slot) {
+        return !Double.isNaN(predCpu(vmId, slot));
+    }
+
+    /** Predicted CPU for (vmId, slot), or NaN if missing. */
+    default double predCpu(int vmId, int slot) {
+        int idx = indexOf(vmId);
+        return idx < 0 ? Double.NaN : predCpuAt(idx, slot);
+    }
+
+    /** Predicted high-load flag for (vmId, slot), or -1 if missing. */
+    default int predHighLoad(int vmId, int slot) {
+        int idx = indexOf(vmId);
+        return idx < 0 ? -1 : predHighLoadAt(idx, slot);
+    }
+
+    /** Actual future CPU for (vmId, slot), or NaN if missing. */
+    default double targetCpu(int vmId, int slot) {
+        int idx = indexOf(vmId);
+        return idx < 0 ? Double.NaN : targetCpuAt(idx, slot);
+    }
+
+    /** Actual high-load flag for (vmId, slot), or -1 if missing. */
+    default int targetHighLoad(int vmId, int slot) {
+        int idx = indexOf(vmId);
+        return idx < 0 ? -1 : targetHighLoadAt(idx, slot);
+    }
+
+    /** Predicted utilisation % of r for (vmId, slot), or NaN if missing. */
+    default double pred(Resource r, int vmId, int slot) {
+        int idx = indexOf(vmId);
+        return idx < 0 ? Double.NaN : predAt(r, idx, slot);
+    }
+
+    /** Materialise a record (allocates). Returns null if missing. */
+    default PredictionRecord get(int vmId, int slot) {
+        int idx = indexOf(vmId);
+        if (idx < 0) return null;
+        double pred = predCpuAt(idx, slot);
+        if (Double.isNaN(pred)) return null;
+        return new PredictionRecord(
+                slot, vmId,
+                targetCpuAt(idx, slot), targetHighLoadAt(idx, slot),
+                pred, predHighLoadAt(idx, slot),
+                true, PredictionRecord.extras(this, idx, slot)
+        );
+    }
+}
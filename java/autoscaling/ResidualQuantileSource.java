@@ -0,0 +1,226 @@
+package autoscaling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Prediction view that provisions against an upper prediction bound
+ * (uncertainty.*): each VM's predicted CPU is raised by an online quantile
+ * of its own forecast residuals, then blended with the classifier flag.
+ *
+ * Logic:
+ * - residual = targetCpu - predCpu of a slot, observed `delay` slots after
+ *   it (the target of a slot is only known once the slot is over)
+ * - per VM, q tracks the (1 - risk) quantile of the residuals by stochastic
+ *   gradient steps on the pinball loss: q += eta * (1 - risk) when the
+ *   residual is above q, q -= eta * risk otherwise; eta = learningRate *
+ *   the VM's running mean |residual - q|, so the step follows the VM's
+ *   own error scale. Two floats per VM, O(1) per observation
+ * - upper bound = predCpu + q (at least 0)
+ * - classifier blend with weight w: predHighLoad = 1 moves the bound
+ *   w of the way up to 100 %, predHighLoad = 0 moves it w of the way back
+ *   down to predCpu; where regressor and classifier agree this changes
+ *   little, where they disagree the classifier tempers the margin
+ *
+ * predCpuAt returns the blended bound; flags, targets and the other
+ * resources are those of the wrapped source. observe(slot) must be called
+ * once per evaluation, before the lookups. Coverage counts the observed
+ * residuals that stayed within the bound in force (before the update).
+ * Not thread-safe: one instance per reader.
+ */
+public final class ResidualQuantileSource implements PredictionSource, Checkpointable {
+
+    // Catch-up limit when observe() jumps ahead (e.g. the first evaluation)
+    private static final int MAX_CATCH_UP = 64;
+
+    private final PredictionSource source;
+    private final boolean alignToVmStart;
+    private final double tau;          // 1 - risk
+    private final double classifierWeight;
+    private final int delay;
+    private final double learningRate;
+
+    // Per VM (dense index)
+    private float[] quantile = new float[0];
+    private float[] scale = new float[0];   // running mean |residual - q|, 0 = no residual yet
+
+    private int observedUpTo = Integer.MIN_VALUE;
+    private long observations;
+    private long covered;
+
+    /**
+     * @param alignToVmStart slots relative to each VM's first slot (fleet runs)
+     * @param risk           share of residuals allowed above the bound, in (0, 1)
+     * @param classifierWeight weight of predHighLoad in the blend, in [0, 1]
+     * @param delay          slots between a slot and its residual being known
+     */
+    public ResidualQuantileSource(PredictionSource source, boolean alignToVmStart, double risk,
+                                  double classifierWeight, int delay, double learningRate) {
+        if (!(risk > 0 && risk < 1)) {
+            throw new IllegalArgumentException("risk must be in (0, 1): " + risk);
+        }
+        if (!(classifierWeight >= 0 && classifierWeight <= 1)) {
+            throw new IllegalArgumentException("classifierWeight must be in [0, 1]: " + classifierWeight);
+        }
+        if (delay < 0) {
+            throw new IllegalArgumentException("delay must be >= 0: " + delay);
+        }
+        this.source = source;
+        this.alignToVmStart = alignToVmStart;
+        this.tau = 1.0 - risk;
+        this.classifierWeight = classifierWeight;
+        this.delay = delay;
+        this.learningRate = learningRate;
+    }
+
+    /** Learn from the residuals that are known at slot (every slot up to slot - delay). */
+    public void observe(int slot) {
+        int last = slot - delay;
+        if (last <= observedUpTo) {
+            return;
+        }
+        int vms = source.vmCount();
+        if (quantile.length < vms) {
+            int n = Math.max(vms, quantile.length * 2);
+            quantile = Arrays.copyOf(quantile, n);
+            scale = Arrays.copyOf(scale, n);
+        }
+        int from = (observedUpTo == Integer.MIN_VALUE || last - observedUpTo > MAX_CATCH_UP)
+                ? last - MAX_CATCH_UP + 1 : observedUpTo + 1;
+        for (int s = from; s <= last; s++) {
+            for (int i = 0; i < vms; i++) {
+                int vs = alignToVmStart ? source.firstSlotAt(i) + s : s;
+                double pred = source.predCpuAt(i, vs);
+                double target = source.targetCpuAt(i, vs);
+                if (pred == pred && target == target) {
+                    update(i, pred, target);
+                }
+            }
+        }
+        observedUpTo = last;
+    }
+
+    private void update(int i, double pred, double target) {
+        double r = target - pred;
+        double q = quantile[i];
+        observations++;
+        if (pred + q >= target) {
+            covered++;
+        }
+        if (scale[i] == 0f) {
+            // First residual: start the quantile there, step on its size
+            quantile[i] = (float) r;
+            scale[i] = (float) Math.max(Math.abs(r), 1e-3);
+            return;
+        }
+        double s = scale[i] + 0.05 * (Math.abs(r - q) - scale[i]);
+        double eta = learningRate * s;
+        quantile[i] = (float) (r > q ? q + eta * tau : q - eta * (1.0 - tau));
+        scale[i] = (float) Math.max(s, 1e-3);
+    }
+
+    /** Upper bound blended with the classifier flag (NaN if no prediction). */
+    private double bound(int index, int slot) {
+        double pred = source.predCpuAt(index, slot);
+        if (pred != pred) {
+            return Double.NaN;
+        }
+        double upper = Math.max(0.0, pred + (index < quantile.length ? quantile[index] : 0.0));
+        if (classifierWeight > 0) {
+            int flag = source.predHighLoadAt(index, slot);
+            if (flag > 0) {
+                upper += classifierWeight * (Math.max(upper, 100.0) - upper);
+            } else if (flag == 0) {
+                upper += classifierWeight * (pred - upper);
+            }
+        }
+        return upper;
+    }
+
+    /** Share of observed residuals within the bound (NaN before the first). */
+    public double coverage() {
+        return observations == 0 ? Double.NaN : (double) covered / observations;
+    }
+
+    public long observations() { return observations; }
+
+    /** Mean of the per-VM quantiles over VMs with residuals (the average margin). */
+    public double meanMargin() {
+        double sum = 0.0;
+        int n = 0;
+        for (int i = 0; i < quantile.length; i++) {
+            if (scale[i] != 0f) {
+                sum += quantile[i];
+                n++;
+            }
+        }
+        return n == 0 ? Double.NaN : sum / n;
+    }
+
+    // ------------ PredictionSource ------------
+
+    @Override
+    public int vmCount() { return source.vmCount(); }
+
+    @Override
+    public int vmIdAt(int index) { return source.vmIdAt(index); }
+
+    @Override
+    public int indexOf(int vmId) { return source.indexOf(vmId); }
+
+    @Override
+    public int firstSlotAt(int index) { return source.firstSlotAt(index); }
+
+    @Override
+    public double predCpuAt(int index, int slot) { return bound(index, slot); }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) { return source.predHighLoadAt(index, slot); }
+
+    @Override
+    public double targetCpuAt(int index, int slot) { return source.targetCpuAt(index, slot); }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) { return source.targetHighLoadAt(index, slot); }
+
+    @Override
+    public boolean hasResource(Resource r) { return source.hasResource(r); }
+
+    @Override
+    public double predAt(Resource r, int index, int slot) {
+        return r == Resource.CPU ? bound(index, slot) : source.predAt(r, index, slot);
+    }
+
+    @Override
+    public double targetAt(Resource r, int index, int slot) { return source.targetAt(r, index, slot); }
+
+    // ------------ Checkpointable ------------
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(observedUpTo);
+        out.writeLong(observations);
+        out.writeLong(covered);
+        out.writeInt(quantile.length);
+        for (int i = 0; i < quantile.length; i++) {
+            out.writeFloat(quantile[i]);
+            out.writeFloat(scale[i]);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        observedUpTo = in.readInt();
+        observations = in.readLong();
+        covered = in.readLong();
+        int n = in.readInt();
+        quantile = new float[n];
+        scale = new float[n];
+        for (int i = 0; i < n; i++) {
+            quantile[i] = in.readFloat();
+            scale[i] = in.readFloat();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package autoscaling;
+
+/**
+ * Resources a prediction table can carry, as utilisation % of one VM.
+ *
+ * CPU is always present (target_cpu_future / pred_cpu_future). The others
+ * are optional trailing CSV columns, in this order:
+ *   target_mem_future, pred_mem_future,
+ *   target_net_future, pred_net_future,
+ *   target_disk_future, pred_disk_future
+ */
+public enum Resource {
+    CPU("cpu"),
+    MEMORY("mem"),
+    NETWORK("net"),
+    DISK("disk");
+
+    /** The optional resources, in CSV column order (index = extraIndex()). */
+    public static final Resource[] EXTRA = {MEMORY, NETWORK, DISK};
+
+    private final String column;
+
+    Resource(String column) {
+        this.column = column;
+    }
+
+    /** Infix of the CSV columns, e.g. "mem" in pred_mem_future. */
+    public String column() { return column; }
+
+    /** Position among EXTRA (MEMORY = 0), -1 for CPU. */
+    public int extraIndex() { return ordinal() - 1; }
+
+    /** cpu | memory | network | disk, or the column infix (mem, net). */
+    public static Resource parse(String name) {
+        String n = name.trim().toLowerCase();
+        for (Resource r : values()) {
+            if (n.equals(r.column) || n.equals(r.name().toLowerCase())) {
+                return r;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resource: " + name);
+    }
+}
@@ -0,0 +1,177 @@
+package autoscaling;
+
+import java.util.Arrays;
+
+/**
+ * Autoregressive AR(order) model with intercept, fitted per series by
+ * recursive least squares with a forgetting factor.
+ *
+ * Logic (x = [1, y(t-1), ..., y(t-order)], d = order + 1):
+ * - k = P x / (lambda + x' P x)
+ * - w = w + k * (y - w' x)
+ * - P = (P - k x' P) / lambda
+ * - forecast(h): iterate w over the lag ring, feeding back each forecast
+ *
+ * Per series the weights (d), covariance (d * d) and lags (order) sit in
+ * flat primitive arrays, so an update is O(d^2) = O(1) for a fixed order.
+ * Until order values have been seen the forecast is the last value.
+ */
+public final class RlsArForecaster implements OnlineForecaster {
+
+    private static final double P_INIT = 1000.0;
+    private static final double P_MAX = 1e8;
+
+    private final int order;
+    private final int d;
+    private final double lambda;
+
+    private double[] weights = new double[0];   // series * d
+    private double[] cov = new double[0];       // series * d * d
+    private double[] lags = new double[0];      // series * order, ring
+    private int[] lagHead = new int[0];         // slot of the newest lag
+    private long[] count = new long[0];
+
+    // Scratch for one update / forecast (not thread-safe)
+    private final double[] x;
+    private final double[] px;
+    private final double[] hist;
+
+    public RlsArForecaster(int order, double lambda) {
+        if (order < 1) {
+            throw new IllegalArgumentException("order must be >= 1");
+        }
+        if (lambda <= 0 || lambda > 1) {
+            throw new IllegalArgumentException("lambda must be in (0,1]");
+        }
+        this.order = order;
+        this.d = order + 1;
+        this.lambda = lambda;
+        this.x = new double[d];
+        this.px = new double[d];
+        this.hist = new double[order];
+    }
+
+    @Override
+    public void observe(int series, double value) {
+        ensureCapacity(series + 1);
+        long n = count[series];
+
+        // 1) RLS step once a full lag vector is available
+        if (n >= order) {
+            features(series);
+            int wb = series * d;
+            int pb = series * d * d;
+
+            double denom = lambda;
+            double pred = 0.0;
+            for (int i = 0; i < d; i++) {
+                double s = 0.0;
+                for (int j = 0; j < d; j++) {
+                    s += cov[pb + i * d + j] * x[j];
+                }
+                px[i] = s;
+                denom += x[i] * s;
+                pred += weights[wb + i] * x[i];
+            }
+            double err = value - pred;
+
+            // P symmetric: x'P = (P x)'
+            boolean blownUp = false;
+            for (int i = 0; i < d; i++) {
+                double ki = px[i] / denom;
+                weights[wb + i] += ki * err;
+                for (int j = 0; j < d; j++) {
+                    double v = (cov[pb + i * d + j] - ki * px[j]) / lambda;
+                    cov[pb + i * d + j] = v;
+                }
+                blownUp |= cov[pb + i * d + i] > P_MAX;
+            }
+            // Flat input with forgetting inflates P; restart it
+            if (blownUp) {
+                initCov(series);
+            }
+        }
+
+        // 2) Push the value into the lag ring
+        int head = (lagHead[series] + 1) % order;
+        lags[series * order + head] = value;
+        lagHead[series] = head;
+        count[series] = n + 1;
+    }
+
+    @Override
+    public double forecast(int series, int horizon) {
+        if (series >= count.length || count[series] == 0) {
+            return Double.NaN;
+        }
+        int lb = series * order;
+        int head = lagHead[series];
+        if (count[series] < order) {
+            return lags[lb + head];
+        }
+
+        // hist[0] = newest lag
+        for (int k = 0; k < order; k++) {
+            hist[k] = lags[lb + (head - k + order) % order];
+        }
+        int wb = series * d;
+        double f = 0.0;
+        for (int h = 0; h < horizon; h++) {
+            f = weights[wb];
+            for (int k = 0; k < order; k++) {
+                f += weights[wb + 1 + k] * hist[k];
+            }
+            System.arraycopy(hist, 0, hist, 1, order - 1);
+            hist[0] = f;
+        }
+        return f;
+    }
+
+    @Override
+    public void reset(int series) {
+        if (series < count.length) {
+            count[series] = 0;
+            lagHead[series] = 0;
+            Arrays.fill(weights, series * d, (series + 1) * d, 0.0);
+            initCov(series);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "rls-ar(" + order + ")";
+    }
+
+    private void features(int series) {
+        int lb = series * order;
+        int head = lagHead[series];
+        x[0] = 1.0;
+        for (int k = 0; k < order; k++) {
+            x[k + 1] = lags[lb + (head - k + order) % order];
+        }
+    }
+
+    private void initCov(int series) {
+        int pb = series * d * d;
+        Arrays.fill(cov, pb, pb + d * d, 0.0);
+        for (int i = 0; i < d; i++) {
+            cov[pb + i * d + i] = P_INIT;
+        }
+    }
+
+    private void ensureCapacity(int series) {
+        int old = count.length;
+        if (series <= old) {
+            return;
+        }
+        int cap = Math.max(series, old * 2);
+        weights = Arrays.copyOf(weights, cap * d);
+        cov = Arrays.copyOf(cov, cap * d * d);
+        lags = Arrays.copyOf(lags, cap * order);
+        lagHead = Arrays.copyOf(lagHead, cap);
+        count = Arrays.copyOf(count, cap);
+        for (int s = old; s < cap; s++) {
+            initCov(s);
+        }
+    }
+}
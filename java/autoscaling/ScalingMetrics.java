@@ -0,0 +1,117 @@
+package autoscaling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Metrics snapshot handed to a ScalingPolicy on each evaluation.
+ *
+ * - predictedCpu: forecast CPU % (NaN if there is no prediction)
+ * - currentCpu:   observed CPU % in the simulation (NaN if not measured)
+ * - vmCount:      VMs currently provisioned
+ * - timeSinceLastAction: simulation time since the last scale up/down
+ * - highLoadShare: share of VMs flagged predHighLoad (NaN if unknown)
+ * - memory / network / disk: predicted % per resource (NaN if unknown)
+ *
+ * Policies act on signal(): the bottleneck, i.e. the highest of the CPU
+ * signal and the other resources' predictions. With CPU only it is
+ * signalCpu().
+ *
+ * One instance is reused across ticks; update() refreshes it in place and
+ * markAction() records when the VM count last changed.
+ */
+public final class ScalingMetrics implements Checkpointable {
+
+    private double time;
+    private double predictedCpu = Double.NaN;
+    private double currentCpu = Double.NaN;
+    private int vmCount;
+    private double highLoadShare = Double.NaN;
+    private double lastActionTime = Double.NEGATIVE_INFINITY;
+    private final double[] extra = {Double.NaN, Double.NaN, Double.NaN};   // per Resource.extraIndex
+
+    public ScalingMetrics update(double time, double predictedCpu, double currentCpu, int vmCount) {
+        this.time = time;
+        this.predictedCpu = predictedCpu;
+        this.currentCpu = currentCpu;
+        this.vmCount = vmCount;
+        this.highLoadShare = Double.NaN;
+        for (int x = 0; x < extra.length; x++) {
+            extra[x] = Double.NaN;
+        }
+        return this;
+    }
+
+    /** Set after update(): predicted utilisation % of a non-CPU resource. */
+    public ScalingMetrics withResource(Resource r, double utilization) {
+        extra[r.extraIndex()] = utilization;
+        return this;
+    }
+
+    /** Set after update() when the high-load classifier output is known. */
+    public ScalingMetrics withHighLoadShare(double share) {
+        this.highLoadShare = share;
+        return this;
+    }
+
+    /** Record that the VM count changed at the given time. */
+    public void markAction(double time) {
+        this.lastActionTime = time;
+    }
+
+    public double getTime() { return time; }
+    public double getPredictedCpu() { return predictedCpu; }
+    public double getCurrentCpu() { return currentCpu; }
+    public int getVmCount() { return vmCount; }
+    public double getLastActionTime() { return lastActionTime; }
+    public double getHighLoadShare() { return highLoadShare; }
+
+    /** Time since the last scaling action (+infinity if none yet). */
+    public double getTimeSinceLastAction() {
+        return time - lastActionTime;
+    }
+
+    /** CPU signal to act on: the prediction if present, else the observed value. */
+    public double signalCpu() {
+        return Double.isNaN(predictedCpu) ? currentCpu : predictedCpu;
+    }
+
+    /** Predicted utilisation % of r (CPU: signalCpu()). */
+    public double getUtilization(Resource r) {
+        return r == Resource.CPU ? signalCpu() : extra[r.extraIndex()];
+    }
+
+    /** Resource with the highest utilisation (CPU if nothing is known). */
+    public Resource bottleneck() {
+        Resource best = Resource.CPU;
+        double max = signalCpu();
+        for (Resource r : Resource.EXTRA) {
+            double v = extra[r.extraIndex()];
+            if (v == v && !(v <= max)) {
+                best = r;
+                max = v;
+            }
+        }
+        return best;
+    }
+
+    /** Signal of the bottleneck resource (NaN if nothing is known). */
+    public double signal() {
+        return getUtilization(bottleneck());
+    }
+
+    // Only the last action time carries over; the rest is refreshed by update()
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(time);
+        out.writeDouble(lastActionTime);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        time = in.readDouble();
+        lastActionTime = in.readDouble();
+    }
+}
@@ -0,0 +1,16 @@
+package autoscaling;
+
+/**
+ * Decides the target VM count from a metrics snapshot.
+ *
+ * Implementations:
+ * - AutoScalerPolicy:            +/- step when over/under a threshold
+ * - HysteresisScalingPolicy:     threshold band + persistence + cooldowns
+ * - TargetTrackingScalingPolicy: jump straight to the count that brings
+ *                                utilisation back to a target
+ */
+public interface ScalingPolicy {
+
+    /** New VM count for the given snapshot (may equal metrics.getVmCount()). */
+    int decideVmCount(ScalingMetrics metrics);
+}
@@ -0,0 +1,223 @@
+package autoscaling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * SLA and cost figures kept as running aggregates while the simulation
+ * runs, so long runs need no post-processing of the results CSV.
+ *
+ * Demand model (as in 04_metrics_and_plots.ipynb): the actual CPU signal
+ * is in % of one VM and spreads over the provisioned VMs, so each VM
+ * carries actual / vmCount. In fleet runs the actual signal is the summed
+ * demand of the table's VMs (observeFleet), spread the same way.
+ *
+ * - SLA violation:      a sample where actual / vmCount > slaCpuThreshold
+ * - over-provisioning:  VMs above ceil(actual / slaCpuThreshold) (at least
+ *                       one), integrated over time
+ * - VM-time / VM-hours: integral of the VM count (CloudSim time in seconds)
+ * - joules:             host energy, set at the end
+ * - oscillations:       scaling actions that reverse the previous direction
+ * - MAE / RMSE:         forecast vs actual CPU over every pair observed
+ *
+ * Constant memory: a handful of accumulators.
+ */
+public final class StreamingMetrics implements Checkpointable {
+
+    private final double slaCpuThreshold;
+
+    // Time-weighted state
+    private double lastTime = Double.NaN;
+    private int vmCount;
+    private double lastActual = Double.NaN;
+    private double vmTime;
+    private double excessVmTime;
+
+    // Samples
+    private long samples;
+    private long slaSamples;
+    private long slaViolations;
+
+    // Scaling
+    private long scalingActions;
+    private long oscillations;
+    private int lastDirection;
+
+    // Forecast error
+    private long forecastPairs;
+    private double absErrorSum;
+    private double sqErrorSum;
+
+    private double joules = Double.NaN;
+
+    public StreamingMetrics(double slaCpuThreshold) {
+        this.slaCpuThreshold = slaCpuThreshold;
+    }
+
+    /**
+     * One evaluation at time with vmCount VMs provisioned and the actual
+     * CPU signal (NaN if unknown: no SLA / over-provisioning sample).
+     */
+    public void sample(double time, int vmCount, double actualCpu) {
+        advance(time);
+        this.vmCount = vmCount;
+        this.lastActual = actualCpu;
+        samples++;
+        if (actualCpu == actualCpu) {
+            slaSamples++;
+            if (actualCpu / Math.max(1, vmCount) > slaCpuThreshold) {
+                slaViolations++;
+            }
+        }
+    }
+
+    /** The VM count changed from -> to at the last sample's time. */
+    public void scalingAction(int from, int to) {
+        int direction = Integer.signum(to - from);
+        if (direction == 0) {
+            return;
+        }
+        scalingActions++;
+        if (lastDirection != 0 && direction != lastDirection) {
+            oscillations++;
+        }
+        lastDirection = direction;
+        vmCount = to;
+    }
+
+    /** One forecast / actual pair (ignored if either is NaN). */
+    public void forecast(double predicted, double actual) {
+        if (predicted == predicted && actual == actual) {
+            double e = predicted - actual;
+            absErrorSum += Math.abs(e);
+            sqErrorSum += e * e;
+            forecastPairs++;
+        }
+    }
+
+    /**
+     * Fleet view of one slot: records the forecast error of every VM with
+     * both values and returns the summed actual CPU (in % of one VM, NaN if
+     * none), i.e. the fleet's total demand for sample().
+     */
+    public double observeFleet(PredictionSource source, int slot, boolean alignToVmStart) {
+        int vms = source.vmCount();
+        int n = 0;
+        double demand = 0.0;
+        for (int i = 0; i < vms; i++) {
+            int s = alignToVmStart ? source.firstSlotAt(i) + slot : slot;
+            double actual = source.targetCpuAt(i, s);
+            if (actual == actual) {
+                demand += actual;
+                n++;
+                forecast(source.predCpuAt(i, s), actual);
+            }
+        }
+        return (n == 0) ? Double.NaN : demand;
+    }
+
+    /** Close the time integrals at endTime and record the run's joules. */
+    public void finish(double endTime, double joules) {
+        advance(endTime);
+        this.joules = joules;
+    }
+
+    // VM-time and over-provisioning over (lastTime, time] at the current state
+    private void advance(double time) {
+        if (lastTime == lastTime && time > lastTime) {
+            double dt = time - lastTime;
+            vmTime += vmCount * dt;
+            if (lastActual == lastActual) {
+                int needed = Math.max(1, (int) Math.ceil(lastActual / slaCpuThreshold));
+                excessVmTime += Math.max(0, vmCount - needed) * dt;
+            }
+        }
+        if (!(time <= lastTime)) {
+            lastTime = time;
+        }
+    }
+
+    public long getSamples() { return samples; }
+    public long getSlaViolations() { return slaViolations; }
+    public double getSlaViolationRate() { return slaSamples == 0 ? 0.0 : (double) slaViolations / slaSamples; }
+    public double getVmTime() { return vmTime; }
+    public double getVmHours() { return vmTime / 3600.0; }
+    public double getExcessVmTime() { return excessVmTime; }
+    public double getJoules() { return joules; }
+    public long getScalingActions() { return scalingActions; }
+    public long getOscillations() { return oscillations; }
+    public double getMae() { return forecastPairs == 0 ? Double.NaN : absErrorSum / forecastPairs; }
+    public double getRmse() { return forecastPairs == 0 ? Double.NaN : Math.sqrt(sqErrorSum / forecastPairs); }
+
+    public static String csvHeader() {
+        return "mode,policy,samples,sla_violations,sla_violation_rate,vm_time,vm_hours,over_provisioned_vm_time,"
+                + "joules,scaling_actions,oscillations,forecast_pairs,mae,rmse";
+    }
+
+    public String toCsv(String mode, String policy) {
+        return String.format(Locale.US, "%s,%s,%d,%d,%.6f,%.4f,%.6f,%.4f,%.2f,%d,%d,%d,%.4f,%.4f",
+                mode, policy, samples, slaViolations, getSlaViolationRate(), vmTime, getVmHours(), excessVmTime,
+                joules, scalingActions, oscillations, forecastPairs, getMae(), getRmse());
+    }
+
+    /** Header plus one row, e.g. exports/summary_predictive.csv. */
+    public void writeSummary(String path, String mode, String policy) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
+            pw.println(csvHeader());
+            pw.println(toCsv(mode, policy));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write metrics summary: " + e.getMessage(), e);
+        }
+    }
+
+    // Accumulators (checkpoint)
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(lastTime);
+        out.writeInt(vmCount);
+        out.writeDouble(lastActual);
+        out.writeDouble(vmTime);
+        out.writeDouble(excessVmTime);
+        out.writeLong(samples);
+        out.writeLong(slaSamples);
+        out.writeLong(slaViolations);
+        out.writeLong(scalingActions);
+        out.writeLong(oscillations);
+        out.writeInt(lastDirection);
+        out.writeLong(forecastPairs);
+        out.writeDouble(absErrorSum);
+        out.writeDouble(sqErrorSum);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        lastTime = in.readDouble();
+        vmCount = in.readInt();
+        lastActual = in.readDouble();
+        vmTime = in.readDouble();
+        excessVmTime = in.readDouble();
+        samples = in.readLong();
+        slaSamples = in.readLong();
+        slaViolations = in.readLong();
+        scalingActions = in.readLong();
+        oscillations = in.readLong();
+        lastDirection = in.readInt();
+        forecastPairs = in.readLong();
+        absErrorSum = in.readDouble();
+        sqErrorSum = in.readDouble();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "SLA %d/%d (%.2f%%), VM-hours=%.3f, over-provisioned VM-time=%.1f, %d actions "
+                        + "(%d oscillations), MAE=%.2f, RMSE=%.2f over %d forecasts",
+                slaViolations, slaSamples, 100.0 * getSlaViolationRate(), getVmHours(), excessVmTime,
+                scalingActions, oscillations, getMae(), getRmse(), forecastPairs);
+    }
+}
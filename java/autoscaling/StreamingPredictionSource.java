@@ -0,0 +1,381 @@
+package autoscaling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Sliding-window view of a slot-sorted predictions CSV.
+ *
+ * Only slots [windowStart, windowStart + lookahead] are kept, in a ring of
+ * (lookahead + 1) frames; each frame holds one primitive column per field,
+ * indexed by VM index. Asking for a slot past the window reads the file
+ * forward and evicts the oldest frames, so memory depends on the window
+ * and the VM count, not on trace length. Slots before the window are gone
+ * and read as missing.
+ *
+ * The file must be sorted by slot (ascending). Rows arriving for a slot
+ * that was already evicted are counted and dropped.
+ *
+ * Checkpoint cursor: the VM registry (ids and first slots, in index order)
+ * plus the window start and the file offset of the first row still in the
+ * window; restoring seeks there and reads the window again.
+ */
+public final class StreamingPredictionSource implements PredictionSource, Checkpointable, AutoCloseable {
+
+    private static final int READ_BUFFER = 1 << 20;
+
+    private final FileChannel channel;
+    private final int frames;
+    private final ByteBuffer buf = ByteBuffer.allocate(READ_BUFFER);
+    private final CsvRowParser parser = new CsvRowParser();
+
+    // VM registry (grows as new VMs show up in the stream)
+    private final IntIndexMap vmIndex = new IntIndexMap(1024);
+    private int[] vmIds = new int[1024];
+    private int[] firstSlot = new int[1024];
+    private int vmCount;
+
+    // Ring of slot frames: frame = floorMod(slot, frames)
+    private final int[] frameSlot;
+    private final long[] frameOffset;   // file offset of the frame's first row
+    private double[][] predCpu;
+    private double[][] targetCpu;
+    private byte[][] predHigh;
+    private byte[][] targetHigh;
+
+    private int windowStart = Integer.MIN_VALUE;
+    private boolean pending;   // parser holds a row not yet stored
+    private boolean eof;
+    private long filePos;
+    private long rowOffset;    // file offset of the row in parser
+    private long rows;
+    private long lateRows;
+    private long malformed;
+
+    public StreamingPredictionSource(String csvPath, int lookaheadSlots) {
+        if (lookaheadSlots < 0) {
+            throw new IllegalArgumentException("lookaheadSlots must be >= 0");
+        }
+        this.frames = lookaheadSlots + 1;
+        this.frameSlot = new int[frames];
+        this.frameOffset = new long[frames];
+        this.predCpu = new double[frames][vmIds.length];
+        this.targetCpu = new double[frames][vmIds.length];
+        this.predHigh = new byte[frames][vmIds.length];
+        this.targetHigh = new byte[frames][vmIds.length];
+        for (int f = 0; f < frames; f++) {
+            clearFrame(f, Integer.MIN_VALUE);
+        }
+
+        try {
+            this.channel = FileChannel.open(Path.of(csvPath), StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open CSV: " + e.getMessage(), e);
+        }
+        buf.flip();
+        skipHeader();
+        System.out.println("Streaming prediction CSV: " + csvPath
+                + " (window " + frames + " slots)");
+    }
+
+    // ------------ Window management ------------
+
+    /**
+     * Move the window so it starts at slot: evict older frames and read
+     * ahead until slot + lookahead is covered (or the file ends).
+     */
+    public void advanceTo(int slot) {
+        if (slot <= windowStart) return;
+
+        int windowEnd = slot + frames - 1;
+        // Recycle frames whose slot fell out of the window
+        for (int f = 0; f < frames; f++) {
+            if (frameSlot[f] != Integer.MIN_VALUE && frameSlot[f] < slot) {
+                frameSlot[f] = Integer.MIN_VALUE;
+            }
+        }
+        windowStart = slot;
+
+        while (!eof || pending) {
+            if (!pending && !readRow()) break;
+            int rowSlot = parser.slot;
+            if (rowSlot > windowEnd) {
+                break; // keep it pending for a later window
+            }
+            pending = false;
+            if (rowSlot < windowStart) {
+                lateRows++;
+                continue;
+            }
+            store(rowSlot);
+        }
+    }
+
+    /**
+     * Read ahead if the requested slot is past the window: the first call
+     * starts the window at slot, later calls slide it just far enough for
+     * slot to be its last frame.
+     */
+    private void ensure(int slot) {
+        if (windowStart == Integer.MIN_VALUE) {
+            advanceTo(slot);
+        } else if (slot > windowStart + frames - 1) {
+            advanceTo(slot - frames + 1);
+        }
+    }
+
+    private void store(int slot) {
+        int f = Math.floorMod(slot, frames);
+        if (frameSlot[f] != slot) {
+            clearFrame(f, slot);
+            frameOffset[f] = rowOffset;
+        }
+        int idx = vmIndex.get(parser.vmId);
+        if (idx < 0) {
+            idx = register(parser.vmId, slot);
+        }
+        predCpu[f][idx] = parser.predCpuFuture;
+        targetCpu[f][idx] = parser.targetCpuFuture;
+        predHigh[f][idx] = (byte) parser.predHighLoad;
+        targetHigh[f][idx] = (byte) parser.targetHighLoad;
+        rows++;
+    }
+
+    private void clearFrame(int f, int slot) {
+        frameSlot[f] = slot;
+        Arrays.fill(predCpu[f], Double.NaN);
+        Arrays.fill(targetCpu[f], Double.NaN);
+    }
+
+    private int register(int vmId, int slot) {
+        if (vmCount == vmIds.length) {
+            int cap = vmCount * 2;
+            vmIds = Arrays.copyOf(vmIds, cap);
+            firstSlot = Arrays.copyOf(firstSlot, cap);
+            for (int f = 0; f < frames; f++) {
+                int old = predCpu[f].length;
+                predCpu[f] = Arrays.copyOf(predCpu[f], cap);
+                targetCpu[f] = Arrays.copyOf(targetCpu[f], cap);
+                predHigh[f] = Arrays.copyOf(predHigh[f], cap);
+                targetHigh[f] = Arrays.copyOf(targetHigh[f], cap);
+                Arrays.fill(predCpu[f], old, cap, Double.NaN);
+                Arrays.fill(targetCpu[f], old, cap, Double.NaN);
+            }
+        }
+        int idx = vmCount++;
+        vmIds[idx] = vmId;
+        firstSlot[idx] = slot;
+        vmIndex.put(vmId, idx);
+        return idx;
+    }
+
+    // ------------ Incremental reading ------------
+
+    private void skipHeader() {
+        while (true) {
+            for (int i = buf.position(); i < buf.limit(); i++) {
+                if (buf.get(i) == '\n') {
+                    buf.position(i + 1);
+                    return;
+                }
+            }
+            buf.position(buf.limit());
+            if (!fill()) return;
+        }
+    }
+
+    /** Parse the next well-formed row into parser. False at end of file. */
+    private boolean readRow() {
+        while (true) {
+            int start = buf.position();
+            int nl = -1;
+            for (int i = start; i < buf.limit(); i++) {
+                if (buf.get(i) == '\n') {
+                    nl = i;
+                    break;
+                }
+            }
+            if (nl < 0) {
+                if (fill()) continue;
+                // Last line without a trailing newline (fill() compacted the buffer)
+                start = buf.position();
+                nl = buf.limit();
+                if (nl == start) {
+                    eof = true;
+                    return false;
+                }
+            }
+            buf.position(Math.min(nl + 1, buf.limit()));
+            if (nl == start || (nl - start == 1 && buf.get(start) == '\r')) {
+                continue;
+            }
+            if (parser.parse(buf, start, nl)) {
+                rowOffset = filePos - buf.limit() + start;
+                pending = true;
+                return true;
+            }
+            malformed++;
+        }
+    }
+
+    /** Compact the buffer and read more bytes. False if nothing was read. */
+    private boolean fill() {
+        buf.compact();
+        if (!buf.hasRemaining()) {
+            throw new RuntimeException("CSV line longer than " + READ_BUFFER + " bytes");
+        }
+        try {
+            int n = channel.read(buf, filePos);
+            if (n > 0) filePos += n;
+            buf.flip();
+            return n > 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV: " + e.getMessage(), e);
+        }
+    }
+
+    // ------------ Checkpoint ------------
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        // Earliest row still needed: the window's frames, else the next unread row
+        long offset = pending ? rowOffset : filePos - buf.limit() + buf.position();
+        for (int f = 0; f < frames; f++) {
+            if (frameSlot[f] != Integer.MIN_VALUE) {
+                offset = Math.min(offset, frameOffset[f]);
+            }
+        }
+        out.writeInt(windowStart);
+        out.writeLong(offset);
+        out.writeInt(vmCount);
+        for (int i = 0; i < vmCount; i++) {
+            out.writeInt(vmIds[i]);
+            out.writeInt(firstSlot[i]);
+        }
+    }
+
+    /** Restore into a freshly opened source: rebuild the registry, seek, refill the window. */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        if (vmCount != 0 || rows != 0) {
+            throw new IllegalStateException("Prediction cursor can only be restored into a fresh source");
+        }
+        int start = in.readInt();
+        long offset = in.readLong();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            register(in.readInt(), in.readInt());
+        }
+
+        buf.clear();
+        buf.flip();
+        filePos = offset;
+        pending = false;
+        eof = false;
+        windowStart = Integer.MIN_VALUE;
+        for (int f = 0; f < frames; f++) {
+            clearFrame(f, Integer.MIN_VALUE);
+        }
+        if (start != Integer.MIN_VALUE) {
+            advanceTo(start);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close CSV: " + e.getMessage(), e);
+        }
+    }
+
+    public int windowStart() { return windowStart; }
+    public long rowsRead() { return rows; }
+    public long lateRows() { return lateRows; }
+    public long malformedRows() { return malformed; }
+
+    // ------------ PredictionSource ------------
+
+    @Override
+    public int vmCount() { return vmCount; }
+
+    @Override
+    public int vmIdAt(int index) { return vmIds[index]; }
+
+    @Override
+    public int indexOf(int vmId) { return vmIndex.get(vmId); }
+
+    @Override
+    public int firstSlotAt(int index) { return firstSlot[index]; }
+
+    @Override
+    public double predCpuAt(int index, int slot) {
+        int f = frame(slot);
+        return f < 0 ? Double.NaN : predCpu[f][index];
+    }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) {
+        int f = frame(slot);
+        return (f < 0 || Double.isNaN(predCpu[f][index])) ? -1 : predHigh[f][index];
+    }
+
+    @Override
+    public double targetCpuAt(int index, int slot) {
+        int f = frame(slot);
+        return (f < 0 || Double.isNaN(predCpu[f][index])) ? Double.NaN : targetCpu[f][index];
+    }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) {
+        int f = frame(slot);
+        return (f < 0 || Double.isNaN(predCpu[f][index])) ? -1 : targetHigh[f][index];
+    }
+
+    // vmId lookups read ahead first, so VMs first seen in that slot are known
+
+    @Override
+    public double predCpu(int vmId, int slot) {
+        ensure(slot);
+        return PredictionSource.super.predCpu(vmId, slot);
+    }
+
+    @Override
+    public int predHighLoad(int vmId, int slot) {
+        ensure(slot);
+        return PredictionSource.super.predHighLoad(vmId, slot);
+    }
+
+    @Override
+    public double targetCpu(int vmId, int slot) {
+        ensure(slot);
+        return PredictionSource.super.targetCpu(vmId, slot);
+    }
+
+    @Override
+    public int targetHighLoad(int vmId, int slot) {
+        ensure(slot);
+        return PredictionSource.super.targetHighLoad(vmId, slot);
+    }
+
+    @Override
+    public PredictionRecord get(int vmId, int slot) {
+        ensure(slot);
+        return PredictionSource.super.get(vmId, slot);
+    }
+
+    /** Ring frame holding slot, or -1 if slot is not in the window. */
+    private int frame(int slot) {
+        ensure(slot);
+        if (slot < windowStart) return -1;
+        int f = Math.floorMod(slot, frames);
+        return frameSlot[f] == slot ? f : -1;
+    }
+}
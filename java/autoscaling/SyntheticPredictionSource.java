@@ -0,0 +1,68 @@
+package autoscaling;
+
+/**
+ * PredictionSource computed on the fly from a SyntheticTrace: no rows are
+ * stored, so 10k VMs x 100k slots costs no memory.
+ *
+ * Same layout as the Bitbrains export: vmId = index + 1 and slots are
+ * global row numbers, VM i covering [i * slotCount, (i + 1) * slotCount).
+ */
+public final class SyntheticPredictionSource implements PredictionSource {
+
+    private final SyntheticTrace trace;
+    private final int slots;
+
+    public SyntheticPredictionSource(SyntheticTrace trace) {
+        if ((long) trace.vmCount() * trace.slotCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("vmCount * slotCount must fit the int slot column");
+        }
+        this.trace = trace;
+        this.slots = trace.slotCount();
+    }
+
+    public SyntheticTrace trace() { return trace; }
+
+    @Override
+    public int vmCount() { return trace.vmCount(); }
+
+    @Override
+    public int vmIdAt(int index) { return index + 1; }
+
+    @Override
+    public int indexOf(int vmId) {
+        return (vmId >= 1 && vmId <= trace.vmCount()) ? vmId - 1 : -1;
+    }
+
+    @Override
+    public int firstSlotAt(int index) { return index * slots; }
+
+    // Local slot inside the VM's range, or -1
+    private int local(int index, int slot) {
+        int t = slot - index * slots;
+        return (t >= 0 && t < slots) ? t : -1;
+    }
+
+    @Override
+    public double predCpuAt(int index, int slot) {
+        int t = local(index, slot);
+        return t < 0 ? Double.NaN : trace.pred(index, t);
+    }
+
+    @Override
+    public int predHighLoadAt(int index, int slot) {
+        int t = local(index, slot);
+        return t < 0 ? -1 : (trace.pred(index, t) > 80 ? 1 : 0);
+    }
+
+    @Override
+    public double targetCpuAt(int index, int slot) {
+        int t = local(index, slot);
+        return t < 0 ? Double.NaN : trace.target(index, t);
+    }
+
+    @Override
+    public int targetHighLoadAt(int index, int slot) {
+        int t = local(index, slot);
+        return t < 0 ? -1 : (trace.target(index, t) > 80 ? 1 : 0);
+    }
+}
@@ -0,0 +1,155 @@
+package autoscaling;
+
+/**
+ * Deterministic synthetic CPU traces and matching predictions for scale
+ * testing (no Bitbrains files needed).
+ *
+ * Every value is a pure function of (seed, vm, slot), so any slot of any
+ * VM can be computed directly in O(1) without storing the trace:
+ * - cpu(vm, t)    = base + amp * sin(2 pi (t + phase) / period)
+ *                   + gaussian noise + burst, clamped to [0,100]
+ *   (base, amp, phase drawn per VM; bursts are burstLength-slot blocks
+ *   that fire with probability burstProb)
+ * - target(vm, t) = cpu(vm, t + horizon)         (like target_cpu_future)
+ * - pred(vm, t)   = target + gaussian error      (forecastError = std dev)
+ *
+ * VMs are indexed 0..vmCount-1; slots 0..slotCount-1.
+ */
+public final class SyntheticTrace {
+
+    private static final long NOISE_STREAM = 0x6A09E667F3BCC909L;
+    private static final long BURST_STREAM = 0xBB67AE8584CAA73BL;
+    private static final long ERROR_STREAM = 0x3C6EF372FE94F82BL;
+
+    private final int vmCount;
+    private final int slotCount;
+    private final long seed;
+
+    private int period = 288;            // 5-minute slots per day
+    private double baseMin = 10, baseMax = 50;
+    private double ampMin = 5, ampMax = 30;
+    private double noise = 3;
+    private double burstProb = 0.01;
+    private int burstLength = 6;
+    private double burstHeight = 30;
+    private int horizon = 6;             // 30 minutes, as in the training windows
+    private double forecastError = 5;
+
+    // Per-VM shape, derived from the seed
+    private double[] base;
+    private double[] amp;
+    private double[] phase;
+
+    public SyntheticTrace(int vmCount, int slotCount, long seed) {
+        if (vmCount <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("vmCount and slotCount must be > 0");
+        }
+        this.vmCount = vmCount;
+        this.slotCount = slotCount;
+        this.seed = seed;
+        shapeVms();
+    }
+
+    public SyntheticTrace diurnal(int period, double baseMin, double baseMax, double ampMin, double ampMax) {
+        this.period = Math.max(1, period);
+        this.baseMin = baseMin;
+        this.baseMax = baseMax;
+        this.ampMin = ampMin;
+        this.ampMax = ampMax;
+        shapeVms();
+        return this;
+    }
+
+    public SyntheticTrace noise(double stdDev) {
+        this.noise = stdDev;
+        return this;
+    }
+
+    public SyntheticTrace bursts(double probability, int length, double height) {
+        this.burstProb = probability;
+        this.burstLength = Math.max(1, length);
+        this.burstHeight = height;
+        return this;
+    }
+
+    public SyntheticTrace forecast(int horizon, double errorStdDev) {
+        this.horizon = Math.max(0, horizon);
+        this.forecastError = errorStdDev;
+        return this;
+    }
+
+    private void shapeVms() {
+        base = new double[vmCount];
+        amp = new double[vmCount];
+        phase = new double[vmCount];
+        for (int vm = 0; vm < vmCount; vm++) {
+            base[vm] = baseMin + uniform(seed, vm, -1) * (baseMax - baseMin);
+            amp[vm] = ampMin + uniform(seed, vm, -2) * (ampMax - ampMin);
+            phase[vm] = uniform(seed, vm, -3) * period;
+        }
+    }
+
+    public int vmCount() { return vmCount; }
+    public int slotCount() { return slotCount; }
+
+    /** Observed CPU % of VM vm at slot t (any t >= 0, also past slotCount). */
+    public double cpu(int vm, int t) {
+        double v = base[vm] + amp[vm] * Math.sin(2 * Math.PI * (t + phase[vm]) / period);
+        if (noise > 0) {
+            v += noise * gaussian(seed ^ NOISE_STREAM, vm, t);
+        }
+        if (burstProb > 0 && uniform(seed ^ BURST_STREAM, vm, t / burstLength) < burstProb) {
+            v += burstHeight;
+        }
+        return clamp(v);
+    }
+
+    /** Actual CPU % horizon slots ahead. */
+    public double target(int vm, int t) {
+        return cpu(vm, t + horizon);
+    }
+
+    /** Predicted CPU % horizon slots ahead (target plus forecast error). */
+    public double pred(int vm, int t) {
+        return pred(vm, t, target(vm, t));
+    }
+
+    /** pred(vm, t) when target(vm, t) is already known. */
+    public double pred(int vm, int t, double target) {
+        double v = target;
+        if (forecastError > 0) {
+            v += forecastError * gaussian(seed ^ ERROR_STREAM, vm, t);
+        }
+        return clamp(v);
+    }
+
+    private static double clamp(double v) {
+        return v < 0 ? 0 : (v > 100 ? 100 : v);
+    }
+
+    // ------------ Counter-based random numbers ------------
+
+    private static long mix(long z) {
+        // SplitMix64 finaliser
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long hash(long stream, int vm, long t) {
+        return mix(mix(stream + 0x9E3779B97F4A7C15L * (vm + 1)) + t);
+    }
+
+    /** Uniform in [0,1). */
+    private static double uniform(long stream, int vm, long t) {
+        return (hash(stream, vm, t) >>> 11) * 0x1.0p-53;
+    }
+
+    /** Standard normal (Box-Muller on two uniforms). */
+    private static double gaussian(long stream, int vm, long t) {
+        long h = hash(stream, vm, t);
+        double u1 = ((h >>> 11) + 1) * 0x1.0p-53;           // (0,1]
+        double u2 = (mix(h) >>> 11) * 0x1.0p-53;
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,158 @@
+package autoscaling;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams a SyntheticTrace to disk as a predictions CSV in the Bitbrains
+ * export layout (same header, rows sorted by VM, global slot numbers),
+ * so every loader / converter / simulation path can run on it.
+ *
+ * Blocks of VMs are encoded in parallel straight into byte buffers and
+ * written in VM order, with a bounded number of blocks in flight; nothing
+ * is kept per row, so the file size is the only limit.
+ *
+ * Usage: SyntheticTraceGenerator --out=data/synthetic.csv --vms=1000 --slots=10000
+ *        [--seed=42] [--period=288] [--baseMin=10] [--baseMax=50] [--ampMin=5]
+ *        [--ampMax=30] [--noise=3] [--burstProb=0.01] [--burstLength=6]
+ *        [--burstHeight=30] [--horizon=6] [--forecastError=5]
+ */
+public class SyntheticTraceGenerator {
+
+    public static final String HEADER =
+            "slot,vm_id,target_cpu_future,target_high_load,pred_cpu_future,pred_high_load";
+
+    private static final int BUFFER = 4 << 20;   // target block size in bytes
+
+    public static void main(String[] args) {
+        Map<String, String> a = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                a.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        SyntheticTrace trace = new SyntheticTrace(
+                Integer.parseInt(a.getOrDefault("vms", "1000")),
+                Integer.parseInt(a.getOrDefault("slots", "10000")),
+                Long.parseLong(a.getOrDefault("seed", "42")))
+                .diurnal(Integer.parseInt(a.getOrDefault("period", "288")),
+                        Double.parseDouble(a.getOrDefault("baseMin", "10")),
+                        Double.parseDouble(a.getOrDefault("baseMax", "50")),
+                        Double.parseDouble(a.getOrDefault("ampMin", "5")),
+                        Double.parseDouble(a.getOrDefault("ampMax", "30")))
+                .noise(Double.parseDouble(a.getOrDefault("noise", "3")))
+                .bursts(Double.parseDouble(a.getOrDefault("burstProb", "0.01")),
+                        Integer.parseInt(a.getOrDefault("burstLength", "6")),
+                        Double.parseDouble(a.getOrDefault("burstHeight", "30")))
+                .forecast(Integer.parseInt(a.getOrDefault("horizon", "6")),
+                        Double.parseDouble(a.getOrDefault("forecastError", "5")));
+
+        writeCsv(trace, a.getOrDefault("out", "data/synthetic_predictions.csv"));
+    }
+
+    public static void writeCsv(SyntheticTrace trace, String path) {
+        long start = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int slots = trace.slotCount();
+        // ~4 MiB of text per block (about 45 bytes per row)
+        int vmsPerBlock = Math.max(1, Math.min(trace.vmCount(), (BUFFER / 45) / slots));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        try (OutputStream out = Files.newOutputStream(Path.of(path))) {
+            out.write((HEADER + "\n").getBytes(StandardCharsets.US_ASCII));
+
+            for (int first = 0; first < trace.vmCount(); first += vmsPerBlock) {
+                int from = first;
+                int to = Math.min(trace.vmCount(), first + vmsPerBlock);
+                inFlight.add(pool.submit(() -> encodeBlock(trace, from, to)));
+                if (inFlight.size() >= 2 * threads) {
+                    out.write(inFlight.poll().get());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                out.write(inFlight.poll().get());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write synthetic CSV: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while writing synthetic CSV", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to encode synthetic rows: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long rows = (long) trace.vmCount() * slots;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d rows (%d VMs x %d slots) to %s in %.2f s, %.0f rows/s%n",
+                rows, trace.vmCount(), slots, path, seconds, rows / seconds);
+    }
+
+    // Rows of VMs [from, to) as CSV text
+    private static byte[] encodeBlock(SyntheticTrace trace, int from, int to) {
+        int slots = trace.slotCount();
+        byte[] buf = new byte[(int) Math.min(Integer.MAX_VALUE - 8, (long) (to - from) * slots * 56)];
+        int len = 0;
+        for (int vm = from; vm < to; vm++) {
+            long firstSlot = (long) vm * slots;
+            for (int t = 0; t < slots; t++) {
+                double target = trace.target(vm, t);
+                double pred = trace.pred(vm, t, target);
+
+                len = putLong(buf, len, firstSlot + t);
+                buf[len++] = ',';
+                len = putLong(buf, len, vm + 1);
+                buf[len++] = ',';
+                len = putFixed(buf, len, target, 10_000L);
+                buf[len++] = ',';
+                buf[len++] = (byte) (target > 80 ? '1' : '0');
+                buf[len++] = ',';
+                len = putFixed(buf, len, pred, 1_000_000L);
+                buf[len++] = ',';
+                buf[len++] = (byte) (pred > 80 ? '1' : '0');
+                buf[len++] = '\n';
+            }
+        }
+        return Arrays.copyOf(buf, len);
+    }
+
+    private static int putLong(byte[] buf, int pos, long v) {
+        if (v == 0) {
+            buf[pos++] = '0';
+            return pos;
+        }
+        int digits = 0;
+        for (long x = v; x > 0; x /= 10) digits++;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + (v % 10));
+            v /= 10;
+        }
+        return pos + digits;
+    }
+
+    // v in [0,100] (trace values are clamped), fixed number of decimals
+    private static int putFixed(byte[] buf, int pos, double v, long scale) {
+        long units = Math.round(v * scale);
+        pos = putLong(buf, pos, units / scale);
+        buf[pos++] = '.';
+        long frac = units % scale;
+        for (long p = scale / 10; p > 0; p /= 10) {
+            buf[pos++] = (byte) ('0' + (frac / p) % 10);
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,54 @@
+package autoscaling;
+
+/**
+ * Target-tracking policy: size the fleet so CPU lands on a target.
+ *
+ * Logic:
+ * - total demand = cpu * n (in "percent of one VM" units)
+ * - desired      = ceil(cpu * n / targetCpu), reached in one step
+ * - no change while cpu is within +/- tolerance of targetCpu
+ * - scale down at most once per scaleInCooldown (simulation time);
+ *   scale up is never delayed
+ * - always keep VM count in [minVms, maxVms]
+ */
+public class TargetTrackingScalingPolicy implements ScalingPolicy {
+
+    private final double targetCpu;
+    private final double tolerance;
+    private final int minVms;
+    private final int maxVms;
+    private final double scaleInCooldown;
+
+    public TargetTrackingScalingPolicy(double targetCpu,
+                                       double tolerance,
+                                       int minVms,
+                                       int maxVms,
+                                       double scaleInCooldown) {
+        if (targetCpu <= 0) {
+            throw new IllegalArgumentException("targetCpu must be > 0");
+        }
+        this.targetCpu = targetCpu;
+        this.tolerance = tolerance;
+        this.minVms = minVms;
+        this.maxVms = maxVms;
+        this.scaleInCooldown = scaleInCooldown;
+    }
+
+    @Override
+    public int decideVmCount(ScalingMetrics metrics) {
+        double cpu = metrics.signal();   // bottleneck resource
+        int current = metrics.getVmCount();
+        if (Double.isNaN(cpu) || Math.abs(cpu - targetCpu) <= tolerance) {
+            return current;
+        }
+
+        int desired = (int) Math.ceil(cpu * Math.max(current, 1) / targetCpu);
+        if (desired < current && metrics.getTimeSinceLastAction() < scaleInCooldown) {
+            desired = current;
+        }
+
+        if (desired < minVms) desired = minVms;
+        if (desired > maxVms) desired = maxVms;
+        return desired;
+    }
+}
@@ -2,7 +2,7 @@ package autoscaling;
 
 public class TestLoader {
     public static void main(String[] args) {
-        String csv = "/Users/azka/Downloads/Java/data/bitbrains_predictions_for_cloudsim.csv";
+        String csv = (args.length > 0) ? args[0] : "data/bitbrains_predictions_for_cloudsim.csv";
 
         PredictionLoader loader = new PredictionLoader(csv);
 
@@ -0,0 +1,153 @@
+package autoscaling;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Flattened random-forest inference (sklearn RandomForestRegressor or
+ * binary RandomForestClassifier, optionally behind a StandardScaler).
+ *
+ * All trees are concatenated into contiguous primitive arrays:
+ * - feature[n]   split feature, -1 for a leaf
+ * - threshold[n] go left when x[feature] <= threshold; leaf value for leaves
+ *                (regressor: mean target, classifier: P(class 1))
+ * - left[n], right[n] absolute child node indices
+ * - roots[t]     first node of tree t
+ *
+ * Features are standardised and cast to float before the comparisons,
+ * exactly like the sklearn pipeline (trees compare float32 inputs).
+ * predictBatch() evaluates rows in chunks on a fork-join pool; inside a
+ * chunk it walks tree by tree so each tree's nodes stay in cache.
+ * Scaled features go to a per-thread buffer (one chunk of rows), so
+ * predictions allocate nothing and one instance can serve many threads.
+ */
+public final class TreeEnsemble {
+
+    /** Rows per fork-join leaf task. */
+    private static final int CHUNK_ROWS = 256;
+
+    private final boolean classifier;
+    private final int nFeatures;
+    private final double[] mean;
+    private final double[] scale;
+
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+
+    // Per-thread scaled features, CHUNK_ROWS rows (predict() uses the first)
+    private final ThreadLocal<float[]> scratch;
+
+    TreeEnsemble(boolean classifier, double[] mean, double[] scale, int[] roots,
+                 int[] feature, double[] threshold, int[] left, int[] right) {
+        this.classifier = classifier;
+        this.nFeatures = mean.length;
+        this.mean = mean;
+        this.scale = scale;
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.scratch = ThreadLocal.withInitial(() -> new float[CHUNK_ROWS * nFeatures]);
+    }
+
+    public boolean isClassifier() { return classifier; }
+    public int featureCount() { return nFeatures; }
+    public int treeCount() { return roots.length; }
+    public int nodeCount() { return feature.length; }
+
+    /** Prediction for one row: rows[offset .. offset + featureCount). */
+    public double predict(double[] rows, int offset) {
+        float[] x = scratch.get();
+        scaleRow(rows, offset, x, 0);
+        double sum = 0.0;
+        for (int root : roots) {
+            sum += walk(root, x, 0);
+        }
+        return sum / roots.length;
+    }
+
+    /**
+     * Predictions for n rows stored back to back in rows (n * featureCount),
+     * written to out[0..n). Regressor: predicted value; classifier: P(class 1).
+     */
+    public void predictBatch(double[] rows, int n, double[] out, ForkJoinPool pool) {
+        if (n <= CHUNK_ROWS || pool.getParallelism() == 1) {
+            predictRange(rows, 0, n, out);
+        } else {
+            pool.invoke(new BatchTask(rows, 0, n, out));
+        }
+    }
+
+    public void predictBatch(double[] rows, int n, double[] out) {
+        predictBatch(rows, n, out, ForkJoinPool.commonPool());
+    }
+
+    private void predictRange(double[] rows, int from, int to, double[] out) {
+        float[] x = scratch.get();
+        for (int start = from; start < to; start += CHUNK_ROWS) {
+            int end = Math.min(to, start + CHUNK_ROWS);
+            int len = end - start;
+
+            // 1) Standardise the chunk once
+            for (int r = 0; r < len; r++) {
+                scaleRow(rows, (start + r) * nFeatures, x, r * nFeatures);
+                out[start + r] = 0.0;
+            }
+            // 2) Tree-major walk: one tree over the whole chunk
+            for (int root : roots) {
+                for (int r = 0; r < len; r++) {
+                    out[start + r] += walk(root, x, r * nFeatures);
+                }
+            }
+            double inv = 1.0 / roots.length;
+            for (int r = start; r < end; r++) {
+                out[r] *= inv;
+            }
+        }
+    }
+
+    private void scaleRow(double[] rows, int offset, float[] x, int xOffset) {
+        for (int f = 0; f < nFeatures; f++) {
+            x[xOffset + f] = (float) ((rows[offset + f] - mean[f]) / scale[f]);
+        }
+    }
+
+    private double walk(int node, float[] x, int xOffset) {
+        int f;
+        while ((f = feature[node]) >= 0) {
+            node = (x[xOffset + f] <= threshold[node]) ? left[node] : right[node];
+        }
+        return threshold[node];
+    }
+
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] rows;
+        private final int from;
+        private final int to;
+        private final double[] out;
+
+        BatchTask(double[] rows, int from, int to, double[] out) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_ROWS * 4) {
+                predictRange(rows, from, to, out);
+                return;
+            }
+            // Split on a chunk boundary
+            int mid = from + ((to - from) / 2 / CHUNK_ROWS) * CHUNK_ROWS;
+            invokeAll(new BatchTask(rows, from, mid, out), new BatchTask(rows, mid, to, out));
+        }
+    }
+}
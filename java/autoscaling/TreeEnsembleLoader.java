@@ -0,0 +1,139 @@
+package autoscaling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a random forest dumped by notebooks/export_forest.py into a
+ * flattened TreeEnsemble.
+ *
+ * Layout (little-endian):
+ *   long  magic        "BBTREE01"
+ *   int   kind         0 = regressor, 1 = classifier
+ *   int   nFeatures
+ *   int   nTrees
+ *   int   nOutputs     1 for a regressor, number of classes (2) for a classifier
+ *   double[nFeatures]  scaler mean   (0 without a scaler)
+ *   double[nFeatures]  scaler scale  (1 without a scaler)
+ *   per tree:
+ *     int nodes
+ *     int[nodes] childrenLeft, int[nodes] childrenRight (-1 = leaf)
+ *     int[nodes] feature, double[nodes] threshold
+ *     double[nodes * nOutputs] value   (sklearn tree_.value)
+ *
+ * Classifier leaves are normalised to P(class 1), matching predict_proba.
+ */
+public final class TreeEnsembleLoader {
+
+    public static final long MAGIC = 0x3130454552544242L; // "BBTREE01" read as little-endian
+
+    private TreeEnsembleLoader() {
+    }
+
+    public static TreeEnsemble load(String path) {
+        try (FileChannel ch = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {
+                // read whole file
+            }
+            buf.flip();
+            TreeEnsemble model = read(buf);
+            System.out.printf("Loaded %s: %d trees, %d nodes, %d features%n",
+                    model.isClassifier() ? "classifier" : "regressor",
+                    model.treeCount(), model.nodeCount(), model.featureCount());
+            return model;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load tree model: " + e.getMessage(), e);
+        }
+    }
+
+    static TreeEnsemble read(ByteBuffer buf) {
+        if (buf.remaining() < 24 || buf.getLong() != MAGIC) {
+            throw new IllegalArgumentException("Not a BBTREE01 model file");
+        }
+        int kind = buf.getInt();
+        int nFeatures = buf.getInt();
+        int nTrees = buf.getInt();
+        int nOutputs = buf.getInt();
+        boolean classifier = kind == 1;
+        if (kind < 0 || kind > 1 || nFeatures <= 0 || nTrees <= 0) {
+            throw new IllegalArgumentException("Bad model header: kind=" + kind
+                    + " features=" + nFeatures + " trees=" + nTrees);
+        }
+        if (classifier ? nOutputs != 2 : nOutputs != 1) {
+            throw new IllegalArgumentException("Only single-output regressors and binary classifiers"
+                    + " are supported (outputs=" + nOutputs + ")");
+        }
+
+        double[] mean = new double[nFeatures];
+        double[] scale = new double[nFeatures];
+        for (int f = 0; f < nFeatures; f++) mean[f] = buf.getDouble();
+        for (int f = 0; f < nFeatures; f++) {
+            double s = buf.getDouble();
+            scale[f] = (s == 0.0) ? 1.0 : s;   // sklearn uses 1 for constant features
+        }
+
+        // 1) First pass: node counts, to size the flat arrays
+        int start = buf.position();
+        int[] roots = new int[nTrees];
+        long total = 0;
+        for (int t = 0; t < nTrees; t++) {
+            int nodes = buf.getInt();
+            roots[t] = (int) total;
+            total += nodes;
+            buf.position(buf.position() + nodes * (12 + 8 + 8 * nOutputs));
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Model too large: " + total + " nodes");
+        }
+
+        int n = (int) total;
+        int[] feature = new int[n];
+        double[] threshold = new double[n];
+        int[] left = new int[n];
+        int[] right = new int[n];
+
+        // 2) Second pass: copy each tree, rebasing child indices
+        buf.position(start);
+        for (int t = 0; t < nTrees; t++) {
+            int nodes = buf.getInt();
+            int base = roots[t];
+            for (int i = 0; i < nodes; i++) {
+                int l = buf.getInt();
+                left[base + i] = (l < 0) ? -1 : base + l;
+            }
+            for (int i = 0; i < nodes; i++) {
+                int r = buf.getInt();
+                right[base + i] = (r < 0) ? -1 : base + r;
+            }
+            for (int i = 0; i < nodes; i++) {
+                int f = buf.getInt();
+                feature[base + i] = (left[base + i] < 0) ? -1 : f;
+                if (f >= nFeatures) {
+                    throw new IllegalArgumentException("Tree " + t + " node " + i + " uses feature " + f);
+                }
+            }
+            for (int i = 0; i < nodes; i++) {
+                threshold[base + i] = buf.getDouble();
+            }
+            for (int i = 0; i < nodes; i++) {
+                double v0 = buf.getDouble();
+                double leaf = v0;
+                if (classifier) {
+                    double v1 = buf.getDouble();
+                    double s = v0 + v1;
+                    leaf = (s > 0) ? v1 / s : 0.0;
+                }
+                if (feature[base + i] < 0) {
+                    threshold[base + i] = leaf;   // leaves keep their value in threshold
+                }
+            }
+        }
+
+        return new TreeEnsemble(classifier, mean, scale, roots, feature, threshold, left, right);
+    }
+}
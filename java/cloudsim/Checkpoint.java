@@ -0,0 +1,95 @@
+package cloudsim;
+
+import autoscaling.Checkpointable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Binary checkpoint file of a single-region run (checkpoint.*).
+ *
+ * Layout (DataOutput, big-endian):
+ *   long  magic     "BBCKPT01"
+ *   int   version
+ *   body written by SimulationRunner: run counters and VM count, then one
+ *   section per component (flag + Checkpointable state)
+ *
+ * Writes go to path.tmp and are moved over path, so a crash mid-write
+ * keeps the previous checkpoint.
+ */
+final class Checkpoint {
+
+    static final long MAGIC = 0x4242434B50543031L; // "BBCKPT01"
+    // 2: residual quantile section after the prediction cursor
+    static final int VERSION = 2;
+
+    interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private Checkpoint() {
+    }
+
+    static void write(String path, Body body) {
+        Path target = Path.of(path);
+        Path tmp = Path.of(path + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeLong(MAGIC);
+                out.writeInt(VERSION);
+                body.write(out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    /** Open a checkpoint and check its header; the caller reads the body. */
+    static DataInputStream open(String path) {
+        try {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(Path.of(path)), 1 << 16));
+            if (in.readLong() != MAGIC) {
+                in.close();
+                throw new IOException("not a checkpoint file: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                in.close();
+                throw new IOException("unsupported checkpoint version " + version);
+            }
+            return in;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    /** Flag + state: components without state (or absent) write false. */
+    static void writeSection(DataOutput out, Object component) throws IOException {
+        boolean has = component instanceof Checkpointable;
+        out.writeBoolean(has);
+        if (has) {
+            ((Checkpointable) component).writeState(out);
+        }
+    }
+
+    static void readSection(DataInput in, Object component, String name) throws IOException {
+        if (!in.readBoolean()) {
+            return;
+        }
+        if (!(component instanceof Checkpointable)) {
+            throw new IOException("checkpoint has " + name + " state the scenario cannot take");
+        }
+        ((Checkpointable) component).readState(in);
+    }
+}
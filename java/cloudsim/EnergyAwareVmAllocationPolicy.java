@@ -0,0 +1,424 @@
+package cloudsim;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyAbstract;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSuitability;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Energy-aware replacement for VmAllocationPolicySimple (placement.policy=energy).
+ *
+ * Logic:
+ * - a VM's demand is its MIPS times its predicted CPU (predictedCpu, in %;
+ *   observed CPU when there is no prediction, 100% for a VM never run)
+ * - hosts running VMs with a free PE sit in a tree keyed by predicted
+ *   headroom (capacity * targetUtilization - predicted load); empty hosts
+ *   sit in a second tree and are powered off
+ * - placement is best fit: the running host with the smallest headroom
+ *   that still fits the demand (ceiling lookup, O(log hosts)); an empty
+ *   host is only powered on when no running host fits. Batches are
+ *   submitted largest-predicted-demand first (see demandComparator), which
+ *   makes it best-fit-decreasing
+ * - scale-in victims come from the least-loaded hosts first, so they drain
+ *   and power off (selectVictims)
+ * - every consolidationInterval, hosts under underloadThreshold are
+ *   drained by live migration onto the other running hosts (only if all
+ *   their VMs fit), then powered off
+ *
+ * Host load is recomputed from the host's VM list whenever the host
+ * changes, and for every host once per slot (predictions move).
+ */
+public class EnergyAwareVmAllocationPolicy extends VmAllocationPolicyAbstract {
+
+    private final double targetUtilization;
+    private final double underloadThreshold;
+    private final double consolidationInterval;
+    private final int maxMigrationsPerRound;
+    private final boolean powerOffIdle;
+
+    private ToDoubleFunction<Vm> predictedCpu = vm -> Double.NaN;
+
+    private final Map<Host, HostEntry> entries = new IdentityHashMap<>();
+    // Hosts running VMs, by headroom; empty hosts, by capacity
+    private final TreeSet<HostEntry> running = new TreeSet<>(
+            Comparator.comparingDouble((HostEntry e) -> e.key).thenComparingInt(e -> e.index));
+    private final TreeSet<HostEntry> empty = new TreeSet<>(
+            Comparator.comparingDouble((HostEntry e) -> e.capacity).thenComparingInt(e -> e.index));
+    private final HostEntry probe = new HostEntry(null, -1, 0.0);
+    // Live migrations started here and not finished yet: VM -> target host
+    private final Map<Vm, Host> inbound = new IdentityHashMap<>();
+
+    private int lastRefreshSlot = Integer.MIN_VALUE;
+    private double lastConsolidation;
+
+    // Statistics
+    private long placements;
+    private long placementNanos;
+    private long migrations;
+    private long powerOffs;
+    private long powerOns;
+
+    private static final class HostEntry {
+        final Host host;
+        final int index;
+        final double capacity;  // total MIPS
+        double load;            // predicted MIPS of its VMs (incl. migrating in)
+        double key;             // headroom while in the running tree
+        boolean draining;       // VMs migrating out; in neither tree
+        int reservedPes;        // planned in the current consolidation round
+        long reservedRam;
+
+        HostEntry(Host host, int index, double capacity) {
+            this.host = host;
+            this.index = index;
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * @param targetUtilization     predicted CPU share a host is filled up to (0..1]
+     * @param underloadThreshold    hosts below this predicted CPU share get drained (0 = never)
+     * @param consolidationInterval simulation time between consolidation rounds (0 = off)
+     * @param maxMigrationsPerRound cap on live migrations started per round
+     * @param powerOffIdle          switch hosts off as soon as they have no VMs
+     */
+    public EnergyAwareVmAllocationPolicy(double targetUtilization,
+                                         double underloadThreshold,
+                                         double consolidationInterval,
+                                         int maxMigrationsPerRound,
+                                         boolean powerOffIdle) {
+        this.targetUtilization = targetUtilization;
+        this.underloadThreshold = underloadThreshold;
+        this.consolidationInterval = consolidationInterval;
+        this.maxMigrationsPerRound = maxMigrationsPerRound;
+        this.powerOffIdle = powerOffIdle;
+    }
+
+    /** Predicted CPU % per VM (NaN = no prediction). Called on the simulation thread. */
+    public void setPredictedCpu(ToDoubleFunction<Vm> predictedCpu) {
+        this.predictedCpu = predictedCpu;
+    }
+
+    /** Largest predicted demand first: set on the broker for best-fit-decreasing batches. */
+    public Comparator<Vm> demandComparator() {
+        return Comparator.comparingDouble(this::demand).reversed();
+    }
+
+    // ------------ Placement ------------
+
+    @Override
+    protected Optional<Host> defaultFindHostForVm(Vm vm) {
+        long start = System.nanoTime();
+        init();
+        double demand = demand(vm);
+
+        // 1) Best fit among running hosts: smallest headroom >= demand
+        probe.key = demand;
+        HostEntry found = null;
+        for (HostEntry e : running.tailSet(probe, true)) {
+            if (e.host.isSuitableForVm(vm)) {
+                found = e;
+                break;
+            }
+        }
+        // 2) Power on the smallest empty host that fits
+        if (found == null) {
+            for (HostEntry e : empty) {
+                if (e.host.isSuitableForVm(vm)) {
+                    found = e;   // switched on (and counted) in allocateHostForVm
+                    break;
+                }
+            }
+        }
+        // 3) Over the predicted target, but the host still has the resources
+        if (found == null) {
+            for (HostEntry e : running.descendingSet()) {
+                if (e.host.isSuitableForVm(vm)) {
+                    found = e;
+                    break;
+                }
+            }
+        }
+
+        placementNanos += System.nanoTime() - start;
+        placements++;
+        return (found == null) ? Optional.empty() : Optional.of(found.host);
+    }
+
+    @Override
+    public HostSuitability allocateHostForVm(Vm vm, Host host) {
+        init();
+        if (!host.isActive()) {
+            host.setActive(true);
+            powerOns++;
+        }
+        if (inbound.remove(vm) == host) {
+            // Migration finished: CloudSim Plus 7.3 allocates the VM's PEs on
+            // the target again without freeing the in-migration allocation,
+            // which would leak them; release that one first
+            host.getVmScheduler().deallocatePesFromVm(vm);
+        }
+        HostSuitability result = super.allocateHostForVm(vm, host);
+        rekey(entries.get(host));
+        return result;
+    }
+
+    @Override
+    public void deallocateHostForVm(Vm vm) {
+        Host host = vm.getHost();
+        super.deallocateHostForVm(vm);
+        HostEntry e = entries.get(host);
+        if (e != null) {
+            rekey(e);
+        }
+    }
+
+    // ------------ Scale-in ------------
+
+    /**
+     * count VMs of candidates to destroy: VMs not placed yet first, then
+     * the VMs on the least-loaded running hosts, so those hosts empty out.
+     */
+    public List<Vm> selectVictims(List<Vm> candidates, int count) {
+        init();
+        List<Vm> victims = new ArrayList<>(count);
+        Set<Vm> pool = Collections.newSetFromMap(new IdentityHashMap<>());
+        pool.addAll(candidates);
+
+        // 1) Waiting / failed VMs cost nothing to drop
+        for (int i = candidates.size() - 1; i >= 0 && victims.size() < count; i--) {
+            Vm vm = candidates.get(i);
+            if (!vm.isCreated()) {
+                victims.add(vm);
+                pool.remove(vm);
+            }
+        }
+        // 2) Least-loaded hosts first (largest headroom)
+        for (HostEntry e : running.descendingSet()) {
+            if (victims.size() >= count) {
+                break;
+            }
+            List<Vm> hosted = e.host.getVmList();
+            for (int i = hosted.size() - 1; i >= 0 && victims.size() < count; i--) {
+                Vm vm = hosted.get(i);
+                if (!vm.isInMigration() && pool.remove(vm)) {
+                    victims.add(vm);
+                }
+            }
+        }
+        // 3) Anything left (e.g. VMs on draining hosts), newest first
+        for (int i = candidates.size() - 1; i >= 0 && victims.size() < count; i--) {
+            Vm vm = candidates.get(i);
+            if (pool.remove(vm)) {
+                victims.add(vm);
+            }
+        }
+        return victims;
+    }
+
+    // ------------ Per-tick upkeep and consolidation ------------
+
+    /**
+     * Called once per clock tick after scaling, with the runner's slot
+     * (time / schedule.slotDuration): refresh loads per slot, consolidate
+     * per interval.
+     */
+    public void onTick(double time, int slot) {
+        init();
+        if (slot != lastRefreshSlot) {
+            lastRefreshSlot = slot;
+            for (HostEntry e : entries.values()) {
+                if (e.draining && !hasMigratingVms(e.host)) {
+                    e.draining = false;   // a migration failed or finished: back in play
+                }
+                rekey(e);
+            }
+        }
+        if (consolidationInterval > 0 && time - lastConsolidation >= consolidationInterval) {
+            lastConsolidation = time;
+            consolidate();
+        }
+    }
+
+    /** Drain underloaded hosts onto the other running hosts by live migration. */
+    private void consolidate() {
+        if (underloadThreshold <= 0) {
+            return;
+        }
+        List<HostEntry> sources = new ArrayList<>();
+        for (HostEntry e : running) {
+            if (e.load < underloadThreshold * e.capacity && !hasMigratingVms(e.host)) {
+                sources.add(e);
+            }
+        }
+        sources.sort(Comparator.comparingDouble((HostEntry e) -> e.load / e.capacity));
+
+        int started = 0;
+        Set<HostEntry> receiving = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (HostEntry src : sources) {
+            List<Vm> vms = new ArrayList<>(src.host.getVmList());
+            if (receiving.contains(src) || vms.isEmpty() || started + vms.size() > maxMigrationsPerRound) {
+                continue;
+            }
+            running.remove(src);
+            src.draining = true;
+
+            // Plan every VM before moving any: all or nothing per host
+            List<HostEntry> targets = new ArrayList<>(vms.size());
+            for (Vm vm : vms) {
+                HostEntry t = bestFitForMigration(vm, demand(vm));
+                if (t == null) {
+                    break;
+                }
+                running.remove(t);
+                t.load += demand(vm);
+                t.key = headroom(t);
+                t.reservedPes += (int) vm.getNumberOfPes();
+                t.reservedRam += vm.getRam().getCapacity();
+                running.add(t);
+                targets.add(t);
+            }
+
+            if (targets.size() < vms.size()) {
+                src.draining = false;
+                rekey(src);
+                for (HostEntry t : targets) {
+                    t.reservedPes = 0;
+                    t.reservedRam = 0;
+                    rekey(t);
+                }
+                continue;
+            }
+
+            for (int i = 0; i < vms.size(); i++) {
+                inbound.put(vms.get(i), targets.get(i).host);
+                getDatacenter().requestVmMigration(vms.get(i), targets.get(i).host);
+                receiving.add(targets.get(i));
+            }
+            started += vms.size();
+            migrations += vms.size();
+        }
+        for (HostEntry t : receiving) {
+            t.reservedPes = 0;
+            t.reservedRam = 0;
+            rekey(t);
+        }
+    }
+
+    private HostEntry bestFitForMigration(Vm vm, double demand) {
+        probe.key = demand;
+        for (HostEntry e : running.tailSet(probe, true)) {
+            if (e.host.getFreePesNumber() - e.reservedPes >= vm.getNumberOfPes()
+                    && e.host.getRam().getAvailableResource() - e.reservedRam >= vm.getRam().getCapacity()
+                    && e.host.isSuitableForVm(vm)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    // ------------ Host index ------------
+
+    private void init() {
+        if (!entries.isEmpty()) {
+            return;
+        }
+        List<Host> hosts = getHostList();
+        for (int i = 0; i < hosts.size(); i++) {
+            Host host = hosts.get(i);
+            HostEntry e = new HostEntry(host, i, host.getTotalMipsCapacity());
+            entries.put(host, e);
+            rekey(e);
+        }
+    }
+
+    /** Recompute a host's predicted load and move it to the right tree (or none). */
+    private void rekey(HostEntry e) {
+        running.remove(e);
+        empty.remove(e);
+
+        Host host = e.host;
+        double load = 0.0;
+        for (Vm vm : host.getVmList()) {
+            load += demand(vm);
+        }
+        for (Vm vm : host.getVmsMigratingIn()) {
+            if (!host.getVmList().contains(vm)) {
+                load += demand(vm);
+            }
+        }
+        e.load = load;
+
+        boolean hasVms = !host.getVmList().isEmpty() || !host.getVmsMigratingIn().isEmpty();
+        if (e.draining) {
+            if (hasVms) {
+                return;   // stays out of both trees until its VMs have left
+            }
+            e.draining = false;
+        }
+        if (hasVms) {
+            // A host without free PEs can't take anything: keep it out of the
+            // tree so lookups don't walk over full hosts
+            if (host.getFreePesNumber() > 0) {
+                e.key = headroom(e);
+                running.add(e);
+            }
+        } else {
+            if (powerOffIdle && host.isActive()) {
+                host.setActive(false);
+                powerOffs++;
+            }
+            empty.add(e);
+        }
+    }
+
+    private double headroom(HostEntry e) {
+        return e.capacity * targetUtilization - e.load;
+    }
+
+    private double demand(Vm vm) {
+        double mips = vm.getMips() * vm.getNumberOfPes();
+        double pred = predictedCpu.applyAsDouble(vm);
+        if (pred == pred) {   // not NaN
+            return mips * Math.max(0.0, Math.min(100.0, pred)) / 100.0;
+        }
+        return vm.isCreated() ? mips * vm.getCpuPercentUtilization() : mips;
+    }
+
+    private static boolean hasMigratingVms(Host host) {
+        if (!host.getVmsMigratingIn().isEmpty()) {
+            return true;
+        }
+        for (Vm vm : host.getVmList()) {
+            if (vm.isInMigration()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------ Statistics ------------
+
+    public long getMigrations() { return migrations; }
+    public long getPowerOffs() { return powerOffs; }
+    public long getPowerOns() { return powerOns; }
+    public int getActiveHosts() {
+        int n = 0;
+        for (HostEntry e : entries.values()) {
+            if (e.host.isActive()) n++;
+        }
+        return n;
+    }
+    public double meanMicrosPerPlacement() { return placements == 0 ? 0.0 : placementNanos / 1e3 / placements; }
+}
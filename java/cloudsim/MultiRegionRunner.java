@@ -0,0 +1,228 @@
+package cloudsim;
+
+import autoscaling.PredictionSlice;
+import autoscaling.PredictionSource;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-region run (regions.count > 1), started from SimulationRunner.
+ *
+ * Logic:
+ * - one CloudSim, regions.count datacenters; each Region has its own host
+ *   fleet, broker, policy instance and metrics
+ * - region r is configured from the scenario plus its region.<r>.<key>
+ *   overrides (e.g. region.1.hosts.count=8, region.2.policy=target)
+ * - predictive mode: the prediction table is cut into regions.count
+ *   contiguous VM slices and each region scales on the p95 of its own
+ *   slice (predictions.fleet is implied)
+ * - every clock tick (or every schedule.slotDuration with schedule.mode=slot,
+ *   no steady-state batching): all regions evaluate in parallel on a
+ *   regions.threads pool, then the decisions are applied one region at a
+ *   time on the simulation thread
+ * - results (output.path, output.energyPath) are written per region, with
+ *   a "_region<r>" suffix; regions.summaryPath gets one row per region
+ */
+public class MultiRegionRunner {
+
+    private final ScenarioConfig config;
+    private final PredictionSource predictions;
+
+    private Region[] regions;
+    private ForkJoinPool pool;
+    private boolean echo;
+    private int echoEvery;
+    private long ticks;
+    private long evaluateNanos;
+
+    /**
+     * @param predictions the whole prediction table (predictive mode), else null
+     */
+    public MultiRegionRunner(ScenarioConfig config, PredictionSource predictions) {
+        this.config = config;
+        this.predictions = predictions;
+    }
+
+    public RunSummary execute() {
+        String mode = config.mode();
+        int count = config.getInt("regions.count");
+        if (mode.equals("predictive") && predictions == null) {
+            throw new IllegalArgumentException(
+                    "regions.count > 1 needs a prediction table (predictions.mode=online/model is single-region)");
+        }
+        this.echo = config.getBoolean("output.echo");
+        this.echoEvery = Math.max(1, config.getInt("output.echoEvery"));
+        if (echo) {
+            System.out.println("=== " + mode + " autoscaling with CloudSim Plus, " + count + " regions ===");
+        }
+
+        CloudSim simulation = new CloudSim();
+        double duration = config.getDouble("simulation.duration");
+        if (duration > 0) {
+            simulation.terminateAt(duration);
+        }
+
+        boolean reactive = mode.equals("reactive");
+        String header = reactive
+                ? "time,slot,avg_cpu_percent,vm_count"
+                : "time,slot,vm_id,pred_cpu,vm_count";
+        String resultsPath = config.get("output.path");
+        boolean gzip = !resultsPath.equals("none") && config.getBoolean("output.compress");
+
+        regions = new Region[count];
+        ResultsWriter[] writers = new ResultsWriter[count];
+        int threads = Math.max(1, Math.min(count, config.getInt("regions.threads")));
+        pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        try {
+            // 1) One datacenter + broker + policy per region
+            for (int r = 0; r < count; r++) {
+                ScenarioConfig rc = regionConfig(r);
+                String path = resultsPath.equals("none") ? "none" : regionPath(resultsPath, r, gzip);
+                writers[r] = path.equals("none")
+                        ? ResultsWriter.discard()
+                        : ResultsWriter.open(path, header, !reactive, path.endsWith(".gz"));
+                // Interpolation caches are per reader: one wrapper per slice
+                PredictionSource slice = (predictions == null) ? null
+                        : new ScenarioFactory(rc).interpolate(PredictionSlice.part(predictions, r, count));
+                regions[r] = new Region(r, rc, simulation, slice, writers[r]);
+            }
+
+            // 2) Hook into simulation clock (or slot boundaries) and run
+            if (config.get("schedule.mode").equals("slot")) {
+                new SlotScheduler(simulation, config.getDouble("schedule.slotDuration"), 1, time -> {
+                    tick(time);
+                    return false;
+                });
+            } else {
+                simulation.addOnClockTickListener(evt -> tick(evt.getTime()));
+            }
+            long start = System.nanoTime();
+            simulation.start();
+            long wallMs = (System.nanoTime() - start) / 1_000_000;
+
+            // 3) Per-region and combined summaries
+            double endTime = simulation.clock();
+            RunSummary[] summaries = new RunSummary[count];
+            double vmTime = 0.0;
+            double joules = 0.0;
+            long sla = 0;
+            long actions = 0;
+            int finalVms = 0;
+            long churn = 0;
+            for (int r = 0; r < count; r++) {
+                summaries[r] = regions[r].finish(endTime, wallMs);
+                vmTime += summaries[r].getEnergyProxy();
+                joules += summaries[r].getEnergyJoules();
+                sla += summaries[r].getSlaViolations();
+                actions += summaries[r].getScalingActions();
+                finalVms += summaries[r].getFinalVmCount();
+                churn += summaries[r].getVmChurn();
+
+                String energyPath = config.get("output.energyPath");
+                if (!energyPath.equals("none")) {
+                    regions[r].getEnergy().writeHostTotals(regionPath(energyPath, r, false));
+                }
+            }
+            RunSummary total = new RunSummary(ticks, endTime, vmTime, joules, sla, actions, finalVms, wallMs, churn, 0);
+
+            String summaryPath = config.get("regions.summaryPath");
+            if (!summaryPath.equals("none")) {
+                writeSummary(summaryPath, summaries);
+            }
+
+            if (echo) {
+                System.out.println("=== Simulation finished ===");
+                System.out.printf("Region decisions: %d regions on %d threads, %.1f us/tick over %d ticks%n",
+                        count, threads, ticks == 0 ? 0.0 : evaluateNanos / 1e3 / ticks, ticks);
+                for (int r = 0; r < count; r++) {
+                    Region region = regions[r];
+                    System.out.printf("Region %d (%d hosts, policy=%s, %d predicted VMs): %.1f J -> %s%n",
+                            r, region.hostCount(), region.getConfig().get("policy"),
+                            region.sliceVmCount(), summaries[r].getEnergyJoules(), summaries[r]);
+                }
+                System.out.println("Summary: " + total);
+                System.out.println("Results saved to: "
+                        + (resultsPath.equals("none") ? "none" : regionPath(resultsPath, 0, gzip) + " ..."));
+            }
+            return total;
+
+        } finally {
+            for (ResultsWriter w : writers) {
+                if (w != null) {
+                    w.close();
+                }
+            }
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private void tick(double time) {
+        ticks++;
+
+        // Decisions in parallel (read-only on CloudSim state)
+        long start = System.nanoTime();
+        if (pool == null) {
+            for (Region region : regions) {
+                region.evaluate(time);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, regions.length).parallel()
+                    .forEach(r -> regions[r].evaluate(time))).join();
+        }
+        evaluateNanos += System.nanoTime() - start;
+
+        // Scaling actions on the simulation thread
+        boolean echoTick = echo && (ticks - 1) % echoEvery == 0;
+        for (Region region : regions) {
+            if (echoTick) {
+                region.echo(time);
+            }
+            region.apply(time);
+        }
+    }
+
+    /** The scenario with every region.<r>.<key> override applied as <key>. */
+    ScenarioConfig regionConfig(int r) {
+        ScenarioConfig rc = config.copy();
+        for (Map.Entry<String, String> e : config.withPrefix("region." + r + ".").entrySet()) {
+            rc.set(e.getKey(), e.getValue());
+        }
+        return rc;
+    }
+
+    /** exports/results.csv -> exports/results_region<r>.csv (".gz" appended when gzip). */
+    static String regionPath(String path, int r, boolean gzip) {
+        if (path.endsWith(".gz")) {
+            path = path.substring(0, path.length() - 3);
+            gzip = true;
+        }
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        int dot = path.lastIndexOf('.');
+        String out = (dot > slash)
+                ? path.substring(0, dot) + "_region" + r + path.substring(dot)
+                : path + "_region" + r;
+        return gzip ? out + ".gz" : out;
+    }
+
+    private void writeSummary(String path, RunSummary[] summaries) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
+            pw.println("region,hosts,policy,first_vm_id,predicted_vms," + RunSummary.csvHeader());
+            for (int r = 0; r < summaries.length; r++) {
+                Region region = regions[r];
+                pw.println(r + "," + region.hostCount() + "," + region.getConfig().get("policy") + ","
+                        + region.sliceFirstVmId() + "," + region.sliceVmCount() + "," + summaries[r].toCsv());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write region summary: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package cloudsim;
+
+import autoscaling.PredictionSource;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent simulations concurrently, one per core.
+ *
+ * The sweep is described with extra keys in the scenario config:
+ *   sweep.grid.<key>=v1,v2,...     values to try for <key> (cartesian product)
+ *   sweep.random.<key>=min:max     uniform range for <key> (ints if both ends are ints)
+ *   sweep.samples=N                N random draws instead of the full grid
+ *                                  (grid keys then pick one of their values)
+ *   sweep.seed=42
+ *   sweep.threads=<cores>
+ *   sweep.output=exports/sweep_summary.csv
+ *   sweep.runOutputDir=<dir>       optional per-run tick CSVs (default: none)
+ *
+ * Runs share read-only prediction tables, loaded once up front: one per
+ * distinct combination of the predictions.* / synthetic.* sweep keys (one
+ * table in total when the sweep does not vary them).
+ *
+ * Usage: ParameterSweep --config=scenarios/sweep-thresholds.properties [--key=value ...]
+ */
+public class ParameterSweep {
+
+    public static void main(String[] args) {
+        // CloudSim logs every event at INFO; keep the console readable
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+        new ParameterSweep().run(ScenarioConfig.fromArgs("predictive", args));
+    }
+
+    public List<RunSummary> run(ScenarioConfig base) {
+        List<Map<String, String>> points = expand(base);
+        int threads = Integer.parseInt(base.get("sweep.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        String summaryPath = base.get("sweep.output", "exports/sweep_summary.csv");
+        String runOutputDir = base.get("sweep.runOutputDir", "");
+
+        System.out.printf("=== Parameter sweep: %d runs on %d threads ===%n", points.size(), threads);
+
+        // Shared, read-only prediction tables, one per distinct source key
+        Map<String, PredictionSource> tables = new HashMap<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        List<Future<RunSummary>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < points.size(); i++) {
+                ScenarioConfig cfg = base.copy();
+                for (Map.Entry<String, String> e : points.get(i).entrySet()) {
+                    cfg.set(e.getKey(), e.getValue());
+                }
+                cfg.set("output.echo", "false");
+                cfg.set("output.path", runOutputDir.isEmpty()
+                        ? "none"
+                        : runOutputDir + "/run_" + i + ".csv");
+
+                PredictionSource source = sharedTable(tables, points.get(i), cfg);
+                futures.add(pool.submit(() -> new SimulationRunner(cfg, source).execute()));
+            }
+
+            List<RunSummary> results = new ArrayList<>();
+            try (PrintWriter pw = new PrintWriter(new FileWriter(summaryPath))) {
+                List<String> keys = new ArrayList<>(points.isEmpty()
+                        ? List.of() : points.get(0).keySet());
+                pw.println("run," + (keys.isEmpty() ? "" : String.join(",", keys) + ",")
+                        + RunSummary.csvHeader());
+
+                for (int i = 0; i < futures.size(); i++) {
+                    RunSummary r = futures.get(i).get();
+                    results.add(r);
+
+                    StringBuilder row = new StringBuilder().append(i).append(',');
+                    for (String key : keys) {
+                        row.append(points.get(i).get(key)).append(',');
+                    }
+                    pw.println(row.append(r.toCsv()));
+                    System.out.printf("run %d %s -> %s%n", i, points.get(i), r);
+                }
+            }
+
+            double minutes = (System.nanoTime() - start) / 60e9;
+            System.out.printf("=== Sweep finished: %d runs in %.1f s, %.1f simulations/minute ===%n",
+                    results.size(), minutes * 60, minutes > 0 ? results.size() / minutes : 0.0);
+            System.out.println("Summary saved to: " + summaryPath);
+            return results;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write sweep summary: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Sweep run failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ------------ Sweep points ------------
+
+    static List<Map<String, String>> expand(ScenarioConfig base) {
+        Map<String, String> grid = base.withPrefix("sweep.grid.");
+        Map<String, String> random = base.withPrefix("sweep.random.");
+        int samples = Integer.parseInt(base.get("sweep.samples", "0"));
+
+        List<Map<String, String>> points = new ArrayList<>();
+        if (samples > 0) {
+            Random rnd = new Random(Long.parseLong(base.get("sweep.seed", "42")));
+            for (int i = 0; i < samples; i++) {
+                Map<String, String> p = new LinkedHashMap<>();
+                for (Map.Entry<String, String> e : grid.entrySet()) {
+                    String[] values = e.getValue().split(",");
+                    p.put(e.getKey(), values[rnd.nextInt(values.length)].trim());
+                }
+                for (Map.Entry<String, String> e : random.entrySet()) {
+                    p.put(e.getKey(), draw(e.getKey(), e.getValue(), rnd));
+                }
+                points.add(p);
+            }
+            return points;
+        }
+
+        if (!random.isEmpty()) {
+            throw new IllegalArgumentException("sweep.random.* keys need sweep.samples > 0");
+        }
+
+        // Cartesian product of the grid keys
+        points.add(new LinkedHashMap<>());
+        for (Map.Entry<String, String> e : grid.entrySet()) {
+            List<Map<String, String>> next = new ArrayList<>();
+            for (Map<String, String> p : points) {
+                for (String v : e.getValue().split(",")) {
+                    Map<String, String> q = new LinkedHashMap<>(p);
+                    q.put(e.getKey(), v.trim());
+                    next.add(q);
+                }
+            }
+            points = next;
+        }
+        return points;
+    }
+
+    /** The run's shared table, opened on first use (null = the run needs none). */
+    private static PredictionSource sharedTable(Map<String, PredictionSource> tables,
+                                                Map<String, String> point, ScenarioConfig cfg) {
+        String sourceMode = cfg.get("predictions.mode");
+        if (!cfg.mode().equals("predictive") || sourceMode.equals("online") || sourceMode.equals("model")) {
+            return null;
+        }
+        if (sourceMode.equals("stream")) {
+            cfg.set("predictions.mode", "auto");
+        }
+        return tables.computeIfAbsent(sourceKey(point), k -> {
+            if (sourceMode.equals("stream")) {
+                System.out.println("Streaming source is single-reader; sweep loads the full table instead");
+            }
+            return SimulationRunner.openPredictions(cfg);
+        });
+    }
+
+    // Sweep values that decide which prediction table a run reads
+    private static String sourceKey(Map<String, String> point) {
+        StringBuilder key = new StringBuilder();
+        for (Map.Entry<String, String> e : point.entrySet()) {
+            if (e.getKey().startsWith("predictions.") || e.getKey().startsWith("synthetic.")) {
+                key.append(e.getKey()).append('=').append(e.getValue()).append(';');
+            }
+        }
+        return key.toString();
+    }
+
+    private static String draw(String key, String range, Random rnd) {
+        String[] bounds = range.split(":");
+        if (bounds.length != 2) {
+            throw new IllegalArgumentException("sweep.random." + key + " must be min:max, got " + range);
+        }
+        String lo = bounds[0].trim();
+        String hi = bounds[1].trim();
+        if (!lo.contains(".") && !hi.contains(".")) {
+            int a = Integer.parseInt(lo);
+            int b = Integer.parseInt(hi);
+            return String.valueOf(a + rnd.nextInt(b - a + 1));
+        }
+        double a = Double.parseDouble(lo);
+        double b = Double.parseDouble(hi);
+        return String.format(Locale.US, "%.4f", a + rnd.nextDouble() * (b - a));
+    }
+}
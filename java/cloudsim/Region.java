@@ -0,0 +1,214 @@
+package cloudsim;
+
+import autoscaling.FleetAggregator;
+import autoscaling.PredictionSource;
+import autoscaling.ResidualQuantileSource;
+import autoscaling.Resource;
+import autoscaling.ScalingMetrics;
+import autoscaling.ScalingPolicy;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.List;
+
+/**
+ * One region of a multi-region run: its own datacenter, host fleet,
+ * broker, policy and (predictive mode) slice of the prediction table.
+ *
+ * Each tick is split in two so regions can decide in parallel:
+ * - evaluate(time): reads CloudSim state only (VM CPU, host power),
+ *   updates this region's metrics, asks the policy and queues the
+ *   results row; the VM count decision is kept as pending
+ * - apply(time): creates / destroys VMs; CloudSim is not thread-safe,
+ *   so this runs on the simulation thread, one region after another
+ */
+class Region {
+
+    final int id;
+    private final String mode;
+    private final ScenarioConfig config;
+    private final PredictionSource slice;
+
+    private final Datacenter datacenter;
+    private final List<Vm> vmList;
+    private final VmScaler scaler;
+    private final ScalingPolicy policy;
+    private final ScalingMetrics metrics = new ScalingMetrics();
+    private final EnergyMeter energy;
+    private final EnergyAwareVmAllocationPolicy placement;
+    private final FleetAggregator fleet;
+    private final ResidualQuantileSource bounds;  // uncertainty.enabled
+    private final Resource[] extraResources;      // memory / network / disk in the slice
+    private final FleetAggregator[] extraFleet;
+    private final ResultsWriter results;
+    private final double slaCpuThreshold;
+    private final double slotDuration;
+    private int currentSlot;
+
+    // Last evaluate()
+    private int currentVmCount;
+    private int pendingVmCount;
+    private double lastValue;
+
+    // Run summary accumulators
+    private long ticks;
+    private double lastTickTime;
+    private int lastVmCount;
+    private double vmTime;
+    private long slaViolations;
+
+    /**
+     * @param slice this region's VMs of the prediction table (predictive mode), else null
+     */
+    Region(int id, ScenarioConfig config, CloudSim simulation, PredictionSource slice, ResultsWriter results) {
+        this.id = id;
+        this.mode = config.mode();
+        this.config = config;
+        this.slice = slice;
+        this.results = results;
+        this.slaCpuThreshold = config.getDouble("sla.cpuThreshold");
+        this.slotDuration = config.getDouble("schedule.slotDuration");
+
+        ScenarioFactory factory = new ScenarioFactory(config);
+        datacenter = factory.createDatacenter(simulation);
+        datacenter.setName("region-" + id);
+        energy = new EnergyMeter(datacenter.getHostList());
+
+        // Pin the broker to this region's datacenter (the default mapper
+        // would spill VMs into the other regions)
+        DatacenterBrokerSimple broker = new DatacenterBrokerSimple(simulation, "broker-" + id);
+        broker.setDatacenterMapper((last, vm) -> datacenter);
+        if (datacenter.getVmAllocationPolicy() instanceof EnergyAwareVmAllocationPolicy) {
+            placement = (EnergyAwareVmAllocationPolicy) datacenter.getVmAllocationPolicy();
+            placement.setPredictedCpu(this::predictedVmCpu);
+            broker.setVmComparator(placement.demandComparator());
+        } else {
+            placement = null;
+        }
+
+        vmList = factory.createVms(config.getInt("vm.initial"));
+        broker.submitVmList(vmList);
+        broker.submitCloudletList(factory.createCloudlets(simulation));
+
+        policy = factory.createPolicy();
+        scaler = new VmScaler(broker, factory, vmList);
+        scaler.setPlacement(placement);
+        scaler.setDelays(config.getDouble("vm.bootDelay"), config.getDouble("vm.shutdownDelay"));
+        // Slots relative to each VM's first slot (Bitbrains export); the
+        // policy looks ahead by the boot lead time (schedule.leadTime)
+        bounds = (slice == null) ? null : factory.uncertainty(slice, true);
+        PredictionSource ahead = (slice == null) ? null : factory.lookahead(bounds != null ? bounds : slice);
+        fleet = (ahead == null) ? null : new FleetAggregator(ahead, true);
+        extraResources = factory.policyResources(slice);
+        extraFleet = new FleetAggregator[extraResources.length];
+        for (int k = 0; k < extraResources.length; k++) {
+            extraFleet[k] = new FleetAggregator(ahead, true, extraResources[k]);
+        }
+        lastVmCount = vmList.size();
+    }
+
+    /** Read-only half of a tick; safe to run concurrently with other regions. */
+    void evaluate(double time) {
+        int slot = (int) (time / slotDuration);
+        currentSlot = slot;
+        currentVmCount = vmList.size();
+
+        double sum = 0.0;
+        for (Vm vm : vmList) {
+            sum += vm.getCpuPercentUtilization() * 100.0;
+        }
+        double avgCpuPercent = vmList.isEmpty() ? 0.0 : sum / vmList.size();
+
+        ticks++;
+        vmTime += lastVmCount * (time - lastTickTime);
+        lastTickTime = time;
+        if (avgCpuPercent > slaCpuThreshold) {
+            slaViolations++;
+        }
+        energy.sample(time);
+
+        int vmId;
+        switch (mode) {
+            case "predictive":
+                vmId = -1;  // whole slice
+                if (bounds != null) {
+                    bounds.observe(slot);
+                }
+                fleet.aggregate(slot);
+                double rawPredCpu = fleet.p95();
+                metrics.update(time, rawPredCpu, Double.NaN, currentVmCount)
+                        .withHighLoadShare(fleet.count() == 0 ? Double.NaN : fleet.highLoadShare());
+                for (int k = 0; k < extraResources.length; k++) {
+                    extraFleet[k].aggregate(slot);
+                    metrics.withResource(extraResources[k], extraFleet[k].p95());
+                }
+                lastValue = Double.isNaN(rawPredCpu) ? -1.0 : rawPredCpu;
+                pendingVmCount = decide();
+                break;
+            case "reactive":
+                vmId = -1;
+                metrics.update(time, Double.NaN, avgCpuPercent, currentVmCount);
+                lastValue = avgCpuPercent;
+                pendingVmCount = decide();
+                break;
+            default:
+                vmId = 1;
+                lastValue = -1.0;
+                pendingVmCount = currentVmCount;
+        }
+
+        results.append(time, slot, vmId, lastValue, currentVmCount);
+    }
+
+    /** Mutating half of a tick: apply the pending decision (simulation thread only). */
+    void apply(double time) {
+        scaler.releaseDrained();
+        if (scaler.scaleTo(pendingVmCount)) {
+            metrics.markAction(time);
+        }
+        if (placement != null) {
+            placement.onTick(time, currentSlot);
+        }
+        lastVmCount = vmList.size();
+    }
+
+    /** Simulated VM k replays slice VM (k mod slice size), as in SimulationRunner. */
+    private double predictedVmCpu(Vm vm) {
+        long id = vm.getId();
+        if (id < 0 || slice == null || slice.vmCount() == 0) {
+            return Double.NaN;
+        }
+        int i = (int) (id % slice.vmCount());
+        return slice.predCpuAt(i, slice.firstSlotAt(i) + currentSlot);
+    }
+
+    private int decide() {
+        return (policy == null) ? currentVmCount : policy.decideVmCount(metrics);
+    }
+
+    /** Console line for the last tick. */
+    void echo(double time) {
+        System.out.printf("t=%.2f region=%d, %s=%.2f, VMs: %d -> %d%n",
+                time, id, mode.equals("reactive") ? "avgCpu" : "predCpu",
+                lastValue, currentVmCount, pendingVmCount);
+    }
+
+    /** Close the accounting at endTime and summarise this region. */
+    RunSummary finish(double endTime, long wallMs) {
+        vmTime += lastVmCount * Math.max(0.0, endTime - lastTickTime);
+        lastTickTime = Math.max(lastTickTime, endTime);
+        energy.sample(endTime);
+        return new RunSummary(ticks, endTime, vmTime, energy.getTotalJoules(),
+                slaViolations, scaler.getScalingActions(), vmList.size(), wallMs,
+                scaler.getVmsCreated() + scaler.getVmsDestroyed(), 0);
+    }
+
+    ScenarioConfig getConfig() { return config; }
+    EnergyMeter getEnergy() { return energy; }
+    int hostCount() { return datacenter.getHostList().size(); }
+    int sliceFirstVmId() { return (slice == null || slice.vmCount() == 0) ? -1 : slice.vmIdAt(0); }
+    int sliceVmCount() { return (slice == null) ? 0 : slice.vmCount(); }
+}
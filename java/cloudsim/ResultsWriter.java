@@ -0,0 +1,258 @@
+package cloudsim;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous per-tick results sink.
+ *
+ * Logic:
+ * - the clock-tick listener appends rows (primitive columns, no Strings)
+ *   into a single-producer / single-consumer ring buffer; no locks
+ * - a background thread drains the ring, encodes the numbers straight into
+ *   a byte buffer (same text as "%.2f,%d,%d,%.4f,%d" without String.format)
+ *   and writes it out in large batches, optionally gzip-compressed
+ * - close() waits for the ring to drain and flushes everything
+ *
+ * Row layout: time,slot[,vm_id],value,vm_count
+ */
+public class ResultsWriter implements AutoCloseable {
+
+    private static final int RING_SIZE = 1 << 16;   // rows, power of two
+    private static final int MASK = RING_SIZE - 1;
+    private static final int BATCH_BYTES = 1 << 20; // write in 1 MiB batches
+    private static final int MAX_ROW_BYTES = 1024;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    private final boolean withVmId;
+    private final OutputStream out;
+
+    // Ring buffer columns
+    private final double[] times = new double[RING_SIZE];
+    private final int[] slots = new int[RING_SIZE];
+    private final int[] vmIds = new int[RING_SIZE];
+    private final double[] values = new double[RING_SIZE];
+    private final int[] vmCounts = new int[RING_SIZE];
+
+    // tail: next row to publish (producer), head: next row to encode (consumer)
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private long producerTail;
+    private volatile boolean closed;
+
+    private final Thread worker;
+    private volatile Throwable failure;
+
+    private final byte[] batch = new byte[BATCH_BYTES + MAX_ROW_BYTES];
+    private int batchLen;
+
+    /** Sink that discards every row (output.path=none). */
+    public static ResultsWriter discard() {
+        return new ResultsWriter(null, null, false);
+    }
+
+    /**
+     * @param path     results file
+     * @param header   CSV header line (without newline)
+     * @param withVmId true for the time,slot,vm_id,value,vm_count layout
+     * @param gzip     compress the output
+     */
+    public static ResultsWriter open(String path, String header, boolean withVmId, boolean gzip) {
+        try {
+            OutputStream os = new FileOutputStream(path);
+            if (gzip) {
+                os = new GZIPOutputStream(os, 1 << 16);
+            }
+            ResultsWriter w = new ResultsWriter(os, header, withVmId);
+            w.worker.start();
+            return w;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open results CSV: " + e.getMessage(), e);
+        }
+    }
+
+    private ResultsWriter(OutputStream out, String header, boolean withVmId) {
+        this.out = out;
+        this.withVmId = withVmId;
+        if (header != null) {
+            byte[] h = (header + "\n").getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(h, 0, batch, 0, h.length);
+            batchLen = h.length;
+        }
+        this.worker = new Thread(this::drainLoop, "results-writer");
+        this.worker.setDaemon(true);
+    }
+
+    // ------------ Producer side (simulation thread) ------------
+
+    /** Queue one row; vmId is ignored for the layout without it. */
+    public void append(double time, int slot, int vmId, double value, int vmCount) {
+        if (out == null) {
+            return;
+        }
+        checkFailure();
+        long t = producerTail;
+        // Ring full: wait for the writer thread to catch up
+        while (t - head.get() >= RING_SIZE) {
+            LockSupport.parkNanos(10_000);
+        }
+        int i = (int) (t & MASK);
+        times[i] = time;
+        slots[i] = slot;
+        vmIds[i] = vmId;
+        values[i] = value;
+        vmCounts[i] = vmCount;
+        producerTail = t + 1;
+        tail.lazySet(t + 1);   // publish (release store)
+    }
+
+    public long getRows() { return producerTail; }
+
+    /** Drain the ring, write the last batch and close the file. */
+    @Override
+    public void close() {
+        if (out == null || closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while flushing results CSV", e);
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() {
+        Throwable f = failure;
+        if (f != null) {
+            throw new RuntimeException("Failed to write results CSV: " + f.getMessage(), f);
+        }
+    }
+
+    // ------------ Consumer side (writer thread) ------------
+
+    private void drainLoop() {
+        try {
+            while (true) {
+                long h = head.get();
+                long t = tail.get();
+                if (h == t) {
+                    if (closed && h == tail.get()) {
+                        break;
+                    }
+                    LockSupport.parkNanos(50_000);
+                    continue;
+                }
+                for (long r = h; r < t; r++) {
+                    encodeRow((int) (r & MASK));
+                    if (batchLen >= BATCH_BYTES) {
+                        writeBatch();
+                    }
+                }
+                head.lazySet(t);
+            }
+            writeBatch();
+            out.close();
+        } catch (Throwable e) {
+            failure = e;
+            head.set(Long.MAX_VALUE / 2);   // unblock a waiting producer
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // already failing
+            }
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        if (batchLen > 0) {
+            out.write(batch, 0, batchLen);
+            batchLen = 0;
+        }
+    }
+
+    private void encodeRow(int i) {
+        putFixed(times[i], 2);
+        batch[batchLen++] = ',';
+        putLong(slots[i]);
+        batch[batchLen++] = ',';
+        if (withVmId) {
+            putLong(vmIds[i]);
+            batch[batchLen++] = ',';
+        }
+        putFixed(values[i], 4);
+        batch[batchLen++] = ',';
+        putLong(vmCounts[i]);
+        batch[batchLen++] = '\n';
+    }
+
+    // ------------ Number encoding ------------
+
+    private void putLong(long v) {
+        if (v < 0) {
+            if (v == Long.MIN_VALUE) {
+                putAscii(Long.toString(v));
+                return;
+            }
+            batch[batchLen++] = '-';
+            v = -v;
+        }
+        int start = batchLen;
+        do {
+            batch[batchLen++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        // digits were written least significant first
+        for (int a = start, b = batchLen - 1; a < b; a++, b--) {
+            byte tmp = batch[a];
+            batch[a] = batch[b];
+            batch[b] = tmp;
+        }
+    }
+
+    /**
+     * Same text as String.format(Locale.US, "%.{decimals}f", v).
+     * Exact ties and very large values go through BigDecimal (HALF_UP on
+     * the shortest decimal representation, like Formatter does).
+     */
+    private void putFixed(double v, int decimals) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) {
+            putAscii(Double.isNaN(v) ? "NaN" : (v > 0 ? "Infinity" : "-Infinity"));
+            return;
+        }
+        double scaled = Math.abs(v) * POW10[decimals];
+        double frac = scaled - Math.floor(scaled);
+        if (scaled >= 1e15 || Math.abs(frac - 0.5) < 1e-6) {
+            putAscii(new BigDecimal(Double.toString(v))
+                    .setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+
+        long units = Math.round(scaled);
+        if (v < 0 || (v == 0 && 1 / v < 0)) {
+            batch[batchLen++] = '-';   // Formatter keeps the sign when rounding to zero
+        }
+        putLong(units / POW10[decimals]);
+        batch[batchLen++] = '.';
+        long fraction = units % POW10[decimals];
+        for (long p = POW10[decimals] / 10; p > 0; p /= 10) {
+            batch[batchLen++] = (byte) ('0' + (fraction / p) % 10);
+        }
+    }
+
+    private void putAscii(String s) {
+        for (int k = 0; k < s.length(); k++) {
+            batch[batchLen++] = (byte) s.charAt(k);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package cloudsim;
+
+import java.util.Locale;
+
+/**
+ * End-of-run figures for one simulation (one row of a sweep summary).
+ *
+ * - energyProxy:    integral of VM count over simulation time (VM-time)
+ * - energyJoules:   host power-model energy integrated over the run
+ * - slaViolations:  ticks where average VM CPU was above sla.cpuThreshold
+ * - scalingActions: scale-up plus scale-down events
+ * - vmChurn:        VMs created plus VMs destroyed by the scaler
+ * - vmResizes:      vertical grow / shrink steps (scaling.mode=vertical)
+ * - wallClockMs:    wall-clock time of simulation.start()
+ */
+public class RunSummary {
+
+    private final long ticks;
+    private final double simulatedTime;
+    private final double energyProxy;
+    private final double energyJoules;
+    private final long slaViolations;
+    private final long scalingActions;
+    private final int finalVmCount;
+    private final long wallClockMs;
+    private final long vmChurn;
+    private final long vmResizes;
+
+    public RunSummary(long ticks,
+                      double simulatedTime,
+                      double energyProxy,
+                      double energyJoules,
+                      long slaViolations,
+                      long scalingActions,
+                      int finalVmCount,
+                      long wallClockMs,
+                      long vmChurn,
+                      long vmResizes) {
+        this.ticks = ticks;
+        this.simulatedTime = simulatedTime;
+        this.energyProxy = energyProxy;
+        this.energyJoules = energyJoules;
+        this.slaViolations = slaViolations;
+        this.scalingActions = scalingActions;
+        this.finalVmCount = finalVmCount;
+        this.wallClockMs = wallClockMs;
+        this.vmChurn = vmChurn;
+        this.vmResizes = vmResizes;
+    }
+
+    public long getTicks() { return ticks; }
+    public double getSimulatedTime() { return simulatedTime; }
+    public double getEnergyProxy() { return energyProxy; }
+    public double getEnergyJoules() { return energyJoules; }
+    public long getSlaViolations() { return slaViolations; }
+    public long getScalingActions() { return scalingActions; }
+    public int getFinalVmCount() { return finalVmCount; }
+    public long getWallClockMs() { return wallClockMs; }
+    public long getVmChurn() { return vmChurn; }
+    public long getVmResizes() { return vmResizes; }
+
+    public static String csvHeader() {
+        return "ticks,simulated_time,energy_proxy,energy_joules,sla_violations,scaling_actions,final_vm_count,wall_ms,vm_churn,vm_resizes";
+    }
+
+    public String toCsv() {
+        return String.format(Locale.US, "%d,%.2f,%.4f,%.2f,%d,%d,%d,%d,%d,%d",
+                ticks, simulatedTime, energyProxy, energyJoules, slaViolations, scalingActions, finalVmCount, wallClockMs,
+                vmChurn, vmResizes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "ticks=%d, simTime=%.2f, energyProxy=%.2f, energy=%.1f J, slaViolations=%d, scalingActions=%d, finalVms=%d, wall=%d ms, churn=%d, resizes=%d",
+                ticks, simulatedTime, energyProxy, energyJoules, slaViolations, scalingActions, finalVmCount, wallClockMs,
+                vmChurn, vmResizes);
+    }
+}
@@ -0,0 +1,319 @@
+package cloudsim;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Scenario description for SimulationRunner.
+ *
+ * Sources, later ones win:
+ * 1) a preset (predictive / reactive / static)
+ * 2) a properties file given with --config=<file>
+ * 3) --key=value command-line overrides
+ *
+ * Shorthand flags kept from the old mains:
+ *   --stream=<lookahead>  -> predictions.mode=stream, predictions.lookahead=<n>
+ *   --fleet               -> predictions.fleet=true
+ *   --policy=<name>       -> policy=<name>
+ *
+ * See scenarios/predictive.properties for every key and its default.
+ */
+public class ScenarioConfig {
+
+    private final Properties props = new Properties();
+
+    private ScenarioConfig() {
+        // Datacenter / hosts
+        set("hosts.count", "2");
+        set("hosts.pes", "4");
+        set("hosts.mips", "1000");
+        set("hosts.ram", "16384");          // MB
+        set("hosts.bw", "100000");
+        set("hosts.storage", "1000000");
+
+        // VM placement: simple (first fit, CloudSim default) | energy (see EnergyAwareVmAllocationPolicy)
+        set("placement.policy", "simple");
+        set("placement.targetUtilization", "0.9");    // fill hosts up to this predicted CPU share
+        set("placement.underloadThreshold", "0.3");   // drain hosts below this predicted CPU share
+        set("placement.consolidationInterval", "300"); // time between consolidation rounds (0 = off)
+        set("placement.maxMigrations", "50");          // live migrations started per round
+        set("placement.powerOffIdle", "true");         // switch off hosts without VMs
+
+        // Host power model: linear | spec | none
+        set("power.model", "linear");
+        set("power.max", "250.0");          // W at 100% CPU (linear)
+        set("power.static", "100.0");       // W when idle (linear)
+        // W at 0%, 10%, ..., 100% CPU (spec); HP ProLiant ML110 G5 from SPECpower
+        set("power.spec", "93.7,97,101,105,110,116,121,125,129,133,135");
+
+        // VM template
+        set("vm.initial", "2");
+        set("vm.pes", "2");
+        set("vm.mips", "1000");
+        set("vm.ram", "2048");              // MB
+        set("vm.bw", "1000");
+        set("vm.bootDelay", "0");           // time before a scale-up VM is placed and usable
+        set("vm.shutdownDelay", "0");       // time a scale-down VM keeps its host resources
+        set("vm.size", "10000");            // image size (MB)
+
+        // Cloudlet workload
+        set("cloudlets.count", "20");
+        set("cloudlets.length", "10000");   // MI
+        set("cloudlets.pes", "2");
+        // full: 100% CPU all the time | synthetic: follow the synthetic trace
+        // (cloudlet i replays synthetic VM i mod synthetic.vms)
+        set("cloudlets.utilization", "full");
+
+        // Scaling policy: threshold | hysteresis | target | none
+        set("policy", "threshold");
+        set("policy.high", "80.0");
+        set("policy.low", "20.0");
+        set("policy.minVms", "1");
+        set("policy.maxVms", "10");         // "auto" = hosts.count * VMs per host (tightest resource)
+        set("policy.stepUp", "1");
+        set("policy.stepDown", "1");
+        set("policy.breachEvaluations", "2");
+        set("policy.upCooldown", "10.0");
+        set("policy.downCooldown", "30.0");
+        set("policy.target", "60.0");
+        set("policy.tolerance", "10.0");
+        set("policy.scaleInCooldown", "30.0");
+        // Resources the policy scales on when the predictions table has them;
+        // it acts on the bottleneck (highest predicted %). CPU is always on
+        set("policy.resources", "cpu,memory,network,disk");
+
+        // Scaling executor: horizontal (add / remove VMs) | vertical (resize
+        // VMs by vm.pes / vm.ram steps, new VMs only when the hosts are full)
+        set("scaling.mode", "horizontal");
+        set("scaling.vertical.maxPes", "0");  // PEs per VM at most (0 = hosts.pes)
+
+        // Prediction source: auto (binary if present, else CSV) | stream | online | model | synthetic
+        set("predictions.path", "data/bitbrains_predictions_for_cloudsim.csv");
+        set("predictions.mode", "auto");
+        set("predictions.lookahead", "12");
+        set("predictions.fleet", "false");
+        set("predictions.vmId", "1");
+        // Missing slots: none (NaN) | linear | last (previous prediction), up to maxGap slots away
+        set("predictions.interpolate", "none");
+        set("predictions.maxGap", "12");
+        // Upper prediction bound: predCpu + per-VM online (1 - risk) quantile of
+        // the residuals (target - pred, known `delay` slots later), blended with
+        // predHighLoad by classifierWeight; the policy provisions against it
+        set("uncertainty.enabled", "false");
+        set("uncertainty.risk", "0.05");
+        set("uncertainty.classifierWeight", "0.25");
+        set("uncertainty.delay", "1");
+        set("uncertainty.learningRate", "0.3");
+
+        // Online forecaster (predictions.mode=online): holt | holtwinters | rls
+        set("forecast.model", "holt");
+        set("forecast.alpha", "0.5");
+        set("forecast.beta", "0.1");
+        set("forecast.gamma", "0.1");
+        set("forecast.season", "24");       // slots per season (holtwinters)
+        set("forecast.order", "4");         // AR lags (rls)
+        set("forecast.lambda", "0.99");     // forgetting factor (rls)
+        set("forecast.horizon", "1");       // slots ahead
+
+        // Synthetic traces (predictions.mode=synthetic, cloudlets.utilization=synthetic)
+        set("synthetic.vms", "1000");
+        set("synthetic.slots", "10000");
+        set("synthetic.seed", "42");
+        set("synthetic.period", "288");     // slots per day (5-minute slots)
+        set("synthetic.baseMin", "10");
+        set("synthetic.baseMax", "50");
+        set("synthetic.ampMin", "5");
+        set("synthetic.ampMax", "30");
+        set("synthetic.noise", "3");        // std dev, CPU %
+        set("synthetic.burstProb", "0.01");
+        set("synthetic.burstLength", "6");
+        set("synthetic.burstHeight", "30");
+        set("synthetic.horizon", "6");      // prediction target: slots ahead
+        set("synthetic.forecastError", "5"); // std dev of the prediction error
+
+        // Exported RandomForest models (predictions.mode=model)
+        set("model.regressor", "data/models/cpu_future_rf.bin");
+        set("model.classifier", "data/models/high_load_rf.bin");   // "none" = no classifier
+        set("model.threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+
+        // Regions (1 = single datacenter). With N > 1 each region gets its own
+        // datacenter, broker and policy; region.<r>.<key> overrides <key> for region r
+        set("regions.count", "1");
+        set("regions.threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        set("regions.summaryPath", "none");  // one row per region ("none" = don't write)
+
+        // Scaling evaluations: tick (every CloudSim clock tick) | slot (every
+        // schedule.slotDuration, scheduled on the CloudSim event queue)
+        set("schedule.mode", "tick");
+        set("schedule.slotDuration", "1");  // simulation time per prediction slot
+        set("schedule.maxBatch", "1");      // slot mode: stretch steady stretches up to N slots per evaluation
+        set("schedule.tolerance", "1.0");   // slot mode: CPU %-points the signal may move and still be steady
+        // Lead time: the predictive policy acts on the max prediction over the
+        // next ceil((vm.bootDelay + schedule.leadMargin) / slotDuration) slots
+        set("schedule.leadTime", "false");
+        set("schedule.leadMargin", "0");    // simulation time added to vm.bootDelay
+
+        // A tick counts as an SLA violation when average VM CPU (%) exceeds this
+        set("sla.cpuThreshold", "80.0");
+
+        // Stop at this simulation time (0 = run until no events are left)
+        set("simulation.duration", "0");
+        // Datacenter update interval (0 = only on events); needed for time-varying workloads
+        set("simulation.schedulingInterval", "0");
+
+        set("output.path", "exports/results_predictive.csv");
+        set("output.echo", "true");
+        set("output.echoEvery", "1");      // echo every N-th tick
+        set("output.compress", "false");    // gzip the results file (adds .gz)
+        // Per-host joules at the end of the run ("none" = don't write)
+        set("output.energyPath", "none");
+        // SLA / cost / forecast-error aggregates kept during the run ("none" = off)
+        set("output.summaryPath", "none");
+
+        // Tick-listener latency histograms and counters (single-region runs)
+        set("metrics.enabled", "false");
+        set("metrics.path", "exports/tick_metrics.csv");  // "none" = console summary only
+        set("metrics.dumpInterval", "3600");               // simulation time between dumps
+
+        // Checkpoint / resume (single-region runs)
+        set("checkpoint.interval", "0");                   // slots between checkpoints (0 = off)
+        set("checkpoint.path", "exports/checkpoint.bin");  // overwritten by every checkpoint
+        set("checkpoint.resume", "none");                  // checkpoint file to continue from
+    }
+
+    // ------------ Presets ------------
+
+    /** mode: predictive | reactive | static */
+    public static ScenarioConfig preset(String mode) {
+        ScenarioConfig c = new ScenarioConfig();
+        switch (mode) {
+            case "predictive":
+                break;
+            case "reactive":
+                c.set("output.path", "exports/results_reactive.csv");
+                break;
+            case "static":
+                c.set("policy", "none");
+                c.set("output.path", "exports/results_static.csv");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        c.set("mode", mode);
+        return c;
+    }
+
+    /**
+     * Preset chosen by --mode (else the file's "mode", else defaultMode),
+     * then the --config file, then every other --key=value.
+     */
+    public static ScenarioConfig fromArgs(String defaultMode, String[] args) {
+        String cliMode = null;
+        String file = null;
+        for (String arg : args) {
+            if (arg.startsWith("--mode=")) cliMode = arg.substring("--mode=".length());
+            if (arg.startsWith("--config=")) file = arg.substring("--config=".length());
+        }
+
+        Properties fileProps = (file != null) ? readFile(file) : new Properties();
+        String mode = (cliMode != null) ? cliMode : fileProps.getProperty("mode", defaultMode).trim();
+
+        ScenarioConfig c = preset(mode);
+        c.props.putAll(fileProps);
+        c.set("mode", mode);
+        for (String arg : args) {
+            c.applyArg(arg);
+        }
+        return c;
+    }
+
+    private static Properties readFile(String path) {
+        Properties fileProps = new Properties();
+        try (Reader r = new FileReader(path)) {
+            fileProps.load(r);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read scenario file: " + e.getMessage(), e);
+        }
+        return fileProps;
+    }
+
+    private void applyArg(String arg) {
+        if (!arg.startsWith("--")) {
+            throw new IllegalArgumentException("Unexpected argument: " + arg);
+        }
+        String kv = arg.substring(2);
+        int eq = kv.indexOf('=');
+        String key = (eq < 0) ? kv : kv.substring(0, eq);
+        String value = (eq < 0) ? "true" : kv.substring(eq + 1);
+
+        switch (key) {
+            case "config":
+            case "mode":
+                return; // handled in fromArgs
+            case "stream":
+                set("predictions.mode", "stream");
+                set("predictions.lookahead", value);
+                return;
+            case "fleet":
+                set("predictions.fleet", value);
+                return;
+            default:
+                set(key, value);
+        }
+    }
+
+    // ------------ Typed access ------------
+
+    public ScenarioConfig set(String key, String value) {
+        props.setProperty(key, value);
+        return this;
+    }
+
+    /** Copy of this config (for sweeps that vary a few keys per run). */
+    public ScenarioConfig copy() {
+        ScenarioConfig c = new ScenarioConfig();
+        c.props.clear();
+        c.props.putAll(props);
+        return c;
+    }
+
+    public String get(String key) {
+        String v = props.getProperty(key);
+        if (v == null) {
+            throw new IllegalArgumentException("Missing scenario key: " + key);
+        }
+        return v.trim();
+    }
+
+    public String get(String key, String def) {
+        String v = props.getProperty(key);
+        return (v == null) ? def : v.trim();
+    }
+
+    public int getInt(String key) { return Integer.parseInt(get(key)); }
+    public long getLong(String key) { return Long.parseLong(get(key)); }
+    public double getDouble(String key) { return Double.parseDouble(get(key)); }
+    public boolean getBoolean(String key) { return Boolean.parseBoolean(get(key)); }
+
+    public String mode() { return get("mode"); }
+
+    /** All keys starting with prefix, prefix stripped, in key order. */
+    public Map<String, String> withPrefix(String prefix) {
+        Map<String, String> out = new TreeMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                out.put(key.substring(prefix.length()), props.getProperty(key).trim());
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return new TreeMap<>(props).toString();
+    }
+}
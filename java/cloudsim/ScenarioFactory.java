@@ -0,0 +1,485 @@
+package cloudsim;
+
+import autoscaling.AutoScalerPolicy;
+import autoscaling.EnsemblePredictor;
+import autoscaling.HoltWintersForecaster;
+import autoscaling.HysteresisScalingPolicy;
+import autoscaling.InterpolatingPredictionSource;
+import autoscaling.LookaheadPredictionSource;
+import autoscaling.OnlineForecaster;
+import autoscaling.PredictionSource;
+import autoscaling.ResidualQuantileSource;
+import autoscaling.Resource;
+import autoscaling.RlsArForecaster;
+import autoscaling.ScalingPolicy;
+import autoscaling.SyntheticTrace;
+import autoscaling.TargetTrackingScalingPolicy;
+import autoscaling.TreeEnsemble;
+import autoscaling.TreeEnsembleLoader;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.power.models.PowerModelHost;
+import org.cloudbus.cloudsim.power.models.PowerModelHostSimple;
+import org.cloudbus.cloudsim.power.models.PowerModelHostSpec;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds CloudSim entities and the scaling policy from a ScenarioConfig.
+ * (Formerly copy-pasted into each of the three simulation mains.)
+ */
+public class ScenarioFactory {
+
+    private final ScenarioConfig config;
+    private SyntheticTrace syntheticTrace;
+
+    public ScenarioFactory(ScenarioConfig config) {
+        this.config = config;
+    }
+
+    // ------------ Helper methods to build CloudSim entities ------------
+
+    public Datacenter createDatacenter(CloudSim simulation) {
+        List<Host> hostList = new ArrayList<>();
+
+        int hosts = config.getInt("hosts.count");
+        long ram = config.getLong("hosts.ram");          // MB
+        long bw = config.getLong("hosts.bw");            // bandwidth
+        long storage = config.getLong("hosts.storage");  // storage
+        int pesPerHost = config.getInt("hosts.pes");
+        double mips = config.getDouble("hosts.mips");
+
+        for (int i = 0; i < hosts; i++) {
+            List<Pe> peList = new ArrayList<>();
+            for (int j = 0; j < pesPerHost; j++) {
+                peList.add(new PeSimple(mips));
+            }
+
+            Host host = new HostSimple(ram, bw, storage, peList);
+            PowerModelHost powerModel = createPowerModel();
+            if (powerModel != null) {
+                host.setPowerModel(powerModel);
+            }
+            hostList.add(host);
+        }
+
+        Datacenter dc = new DatacenterSimple(simulation, hostList, createAllocationPolicy());
+        double interval = config.getDouble("simulation.schedulingInterval");
+        if (interval > 0) {
+            dc.setSchedulingInterval(interval);
+        }
+        return dc;
+    }
+
+    /** VM placement named by "placement.policy": simple | energy. */
+    public VmAllocationPolicy createAllocationPolicy() {
+        String name = config.get("placement.policy");
+        switch (name) {
+            case "simple":
+                return new VmAllocationPolicySimple();
+            case "energy":
+                return new EnergyAwareVmAllocationPolicy(
+                        config.getDouble("placement.targetUtilization"),
+                        config.getDouble("placement.underloadThreshold"),
+                        config.getDouble("placement.consolidationInterval"),
+                        config.getInt("placement.maxMigrations"),
+                        config.getBoolean("placement.powerOffIdle")
+                );
+            default:
+                throw new IllegalArgumentException("Unknown placement policy: " + name);
+        }
+    }
+
+    /** Power model named by "power.model" (a new instance per host), or null for "none". */
+    public PowerModelHost createPowerModel() {
+        String name = config.get("power.model");
+        switch (name) {
+            case "none":
+                return null;
+            case "linear":
+                return new PowerModelHostSimple(
+                        config.getDouble("power.max"),
+                        config.getDouble("power.static"));
+            case "spec": {
+                List<Double> watts = new ArrayList<>();
+                for (String v : config.get("power.spec").split(",")) {
+                    watts.add(Double.parseDouble(v.trim()));
+                }
+                return new PowerModelHostSpec(watts);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown power model: " + name);
+        }
+    }
+
+    public List<Vm> createVms(int count) {
+        List<Vm> vmList = new ArrayList<>();
+
+        long size = config.getLong("vm.size");  // image size (MB)
+        long ram = config.getLong("vm.ram");    // vm memory (MB)
+        long bw = config.getLong("vm.bw");      // bandwidth
+        int pes = config.getInt("vm.pes");      // number of CPU cores
+        double mips = config.getDouble("vm.mips");
+
+        boolean vertical = verticalScaling();
+        for (int i = 0; i < count; i++) {
+            Vm vm = new VmSimple(mips, pes);
+            vm.setRam(ram).setBw(bw).setSize(size);
+            if (vertical) {
+                // Resized one template step (vm.pes, vm.ram) at a time
+                VerticalVmScaler.attach(vm, pes, ram);
+            }
+            vmList.add(vm);
+        }
+
+        return vmList;
+    }
+
+    public List<Cloudlet> createCloudlets(CloudSim simulation) {
+        List<Cloudlet> list = new ArrayList<>();
+
+        int count = config.getInt("cloudlets.count");
+        long length = config.getLong("cloudlets.length");
+        int pes = config.getInt("cloudlets.pes");
+        String utilization = config.get("cloudlets.utilization");
+
+        for (int i = 0; i < count; i++) {
+            Cloudlet cloudlet = new CloudletSimple(length, pes);
+            switch (utilization) {
+                case "full":
+                    cloudlet.setUtilizationModelCpu(new UtilizationModelFull());
+                    break;
+                case "synthetic":
+                    cloudlet.setUtilizationModelCpu(syntheticUtilization(simulation, i));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown cloudlets.utilization: " + utilization);
+            }
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+
+    /**
+     * CPU model replaying synthetic VM (index mod synthetic.vms):
+     * utilisation at time t is that VM's trace at slot t / schedule.slotDuration,
+     * the slot the policy reads at t.
+     */
+    private UtilizationModelDynamic syntheticUtilization(CloudSim simulation, int index) {
+        SyntheticTrace trace = createSyntheticTrace();
+        int vm = index % trace.vmCount();
+        double slotDuration = config.getDouble("schedule.slotDuration");
+        UtilizationModelDynamic model = new UtilizationModelDynamic(trace.cpu(vm, 0) / 100.0);
+        model.setSimulation(simulation);
+        model.setUtilizationUpdateFunction(um ->
+                trace.cpu(vm, (int) Math.max(0, um.getSimulation().clock() / slotDuration)) / 100.0);
+        return model;
+    }
+
+    // ------------ Synthetic traces ------------
+
+    /** The seeded trace described by "synthetic.*" (one instance per factory). */
+    public SyntheticTrace createSyntheticTrace() {
+        if (syntheticTrace == null) {
+            syntheticTrace = new SyntheticTrace(
+                    config.getInt("synthetic.vms"),
+                    config.getInt("synthetic.slots"),
+                    config.getLong("synthetic.seed"))
+                    .diurnal(config.getInt("synthetic.period"),
+                            config.getDouble("synthetic.baseMin"),
+                            config.getDouble("synthetic.baseMax"),
+                            config.getDouble("synthetic.ampMin"),
+                            config.getDouble("synthetic.ampMax"))
+                    .noise(config.getDouble("synthetic.noise"))
+                    .bursts(config.getDouble("synthetic.burstProb"),
+                            config.getInt("synthetic.burstLength"),
+                            config.getDouble("synthetic.burstHeight"))
+                    .forecast(config.getInt("synthetic.horizon"),
+                            config.getDouble("synthetic.forecastError"));
+        }
+        return syntheticTrace;
+    }
+
+    // ------------ Scaling policy ------------
+
+    /** Policy named by "policy", or null for "none" (static run). */
+    public ScalingPolicy createPolicy() {
+        String name = config.get("policy");
+        switch (name) {
+            case "none":
+                return null;
+            case "threshold":
+                return new AutoScalerPolicy(
+                        config.getDouble("policy.high"),
+                        config.getDouble("policy.low"),
+                        config.getInt("policy.minVms"),
+                        maxVms(),
+                        config.getInt("policy.stepUp"),
+                        config.getInt("policy.stepDown")
+                );
+            case "hysteresis":
+                return new HysteresisScalingPolicy(
+                        config.getDouble("policy.high"),
+                        config.getDouble("policy.low"),
+                        config.getInt("policy.minVms"),
+                        maxVms(),
+                        config.getInt("policy.stepUp"),
+                        config.getInt("policy.stepDown"),
+                        config.getInt("policy.breachEvaluations"),
+                        config.getDouble("policy.upCooldown"),
+                        config.getDouble("policy.downCooldown")
+                );
+            case "target":
+                return new TargetTrackingScalingPolicy(
+                        config.getDouble("policy.target"),
+                        config.getDouble("policy.tolerance"),
+                        config.getInt("policy.minVms"),
+                        maxVms(),
+                        config.getDouble("policy.scaleInCooldown")
+                );
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+    }
+
+    /** policy.maxVms, or for "auto" every VM the hosts can hold (hosts.count * vmsPerHost()). */
+    public int maxVms() {
+        String v = config.get("policy.maxVms");
+        return v.equals("auto") ? config.getInt("hosts.count") * vmsPerHost() : Integer.parseInt(v);
+    }
+
+    // ------------ Scaling mode ------------
+
+    /** scaling.mode: horizontal (add / remove VMs) or vertical (resize VMs). */
+    public boolean verticalScaling() {
+        String mode = config.get("scaling.mode");
+        switch (mode) {
+            case "horizontal":
+                return false;
+            case "vertical":
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown scaling mode: " + mode);
+        }
+    }
+
+    /** scaling.vertical.maxPes, or for 0 a whole host (hosts.pes). */
+    public int verticalMaxPes() {
+        int max = config.getInt("scaling.vertical.maxPes");
+        return max > 0 ? max : config.getInt("hosts.pes");
+    }
+
+    // ------------ Resources ------------
+
+    // Host capacity / VM demand per sizing resource: pes, ram, bw, storage
+    private static final String[] SIZING = {"pes", "ram", "bw", "storage"};
+    private static final String[] VM_KEYS = {"vm.pes", "vm.ram", "vm.bw", "vm.size"};
+
+    /**
+     * VMs of the vm.* template that fit one host of the hosts.* template:
+     * the smallest per-resource count (PEs, RAM, bandwidth, storage).
+     */
+    public int vmsPerHost() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < SIZING.length; i++) {
+            min = Math.min(min, perHost(i));
+        }
+        return (int) Math.min(min, Integer.MAX_VALUE);
+    }
+
+    /** Resource that limits vmsPerHost(): pes | ram | bw | storage. */
+    public String hostBottleneck() {
+        int best = 0;
+        for (int i = 1; i < SIZING.length; i++) {
+            if (perHost(i) < perHost(best)) best = i;
+        }
+        return SIZING[best];
+    }
+
+    private long perHost(int i) {
+        long need = Math.max(1, config.getLong(VM_KEYS[i]));
+        return config.getLong("hosts." + SIZING[i]) / need;
+    }
+
+    /**
+     * Non-CPU resources the policy watches: those named in
+     * "policy.resources" that source has columns for. CPU is always on.
+     */
+    public Resource[] policyResources(PredictionSource source) {
+        List<Resource> out = new ArrayList<>();
+        for (String name : config.get("policy.resources").split(",")) {
+            Resource r = Resource.parse(name);
+            if (r != Resource.CPU && source != null && source.hasResource(r) && !out.contains(r)) {
+                out.add(r);
+            }
+        }
+        return out.toArray(new Resource[0]);
+    }
+
+    // ------------ Prediction misses ------------
+
+    /**
+     * source wrapped per "predictions.interpolate" (linear | last), or
+     * source itself for "none". The wrapper is single-reader.
+     */
+    public PredictionSource interpolate(PredictionSource source) {
+        String mode = config.get("predictions.interpolate");
+        switch (mode) {
+            case "none":
+                return source;
+            case "linear":
+            case "last":
+                return new InterpolatingPredictionSource(source, mode.equals("linear"),
+                        config.getInt("predictions.maxGap"));
+            default:
+                throw new IllegalArgumentException("Unknown interpolation: " + mode);
+        }
+    }
+
+    // ------------ Streaming source ------------
+
+    /**
+     * predictions.mode=stream only serves slots in file order, and its VM
+     * registry only grows as slots are read. Readers that align slots to
+     * each VM's first slot cannot use it: fleet aggregation
+     * (predictions.fleet) and the predicted-CPU lookup of the energy-aware
+     * placement. The slots read around the evaluated slot (streamBehind()
+     * before it, streamReach() after it) must fit in the window.
+     */
+    public void checkStreamReaders() {
+        if (!config.get("predictions.mode").equals("stream")) {
+            return;
+        }
+        int lookahead = config.getInt("predictions.lookahead");
+        int span = streamBehind() + streamReach();
+        if (span > lookahead) {
+            throw new IllegalArgumentException("predictions.mode=stream needs a window of " + span
+                    + " slots (" + streamBehind() + " behind, " + streamReach()
+                    + " ahead), predictions.lookahead is " + lookahead);
+        }
+        if (config.getBoolean("predictions.fleet")) {
+            throw new IllegalArgumentException("predictions.mode=stream does not support predictions.fleet=true");
+        }
+        if (config.get("placement.policy").equals("energy")) {
+            throw new IllegalArgumentException("predictions.mode=stream does not support placement.policy=energy");
+        }
+    }
+
+    /**
+     * Slots before the evaluated slot read from a streaming source: the
+     * residuals learned uncertainty.delay slots late, plus the backward
+     * neighbour probe of interpolation (predictions.maxGap) behind them.
+     */
+    public int streamBehind() {
+        int delay = config.getBoolean("uncertainty.enabled") ? config.getInt("uncertainty.delay") : 0;
+        int probe = config.get("predictions.interpolate").equals("none") ? 0 : config.getInt("predictions.maxGap");
+        return delay + probe;
+    }
+
+    /**
+     * Slots past the evaluated slot read from a streaming source: the
+     * lead-time window (leadSlots()) plus the forward neighbour probe of
+     * linear interpolation (predictions.maxGap) at its far end.
+     */
+    public int streamReach() {
+        int probe = config.get("predictions.interpolate").equals("linear") ? config.getInt("predictions.maxGap") : 0;
+        return leadSlots() + probe;
+    }
+
+    // ------------ Lead time ------------
+
+    /**
+     * Slots the predictive policy looks ahead (schedule.leadTime): the VM
+     * boot time plus schedule.leadMargin, rounded up to whole slots; 0 = off.
+     */
+    public int leadSlots() {
+        if (!config.getBoolean("schedule.leadTime")) {
+            return 0;
+        }
+        double lead = config.getDouble("vm.bootDelay") + config.getDouble("schedule.leadMargin");
+        return (int) Math.ceil(lead / config.getDouble("schedule.slotDuration"));
+    }
+
+    /** source seen through a leadSlots() lookahead window, or source itself when off. */
+    public PredictionSource lookahead(PredictionSource source) {
+        int slots = leadSlots();
+        return slots > 0 ? new LookaheadPredictionSource(source, slots) : source;
+    }
+
+    // ------------ Prediction uncertainty ------------
+
+    /**
+     * Upper-bound view of source per "uncertainty.*", or null when
+     * uncertainty.enabled=false. Single-reader, like the other wrappers.
+     */
+    public ResidualQuantileSource uncertainty(PredictionSource source, boolean alignToVmStart) {
+        if (!config.getBoolean("uncertainty.enabled")) {
+            return null;
+        }
+        return new ResidualQuantileSource(source, alignToVmStart,
+                config.getDouble("uncertainty.risk"),
+                config.getDouble("uncertainty.classifierWeight"),
+                config.getInt("uncertainty.delay"),
+                config.getDouble("uncertainty.learningRate"));
+    }
+
+    // ------------ Online forecaster ------------
+
+    /** Forecaster named by "forecast.model" (predictions.mode=online). */
+    public OnlineForecaster createForecaster() {
+        String name = config.get("forecast.model");
+        switch (name) {
+            case "holt":
+                return new HoltWintersForecaster(
+                        config.getDouble("forecast.alpha"),
+                        config.getDouble("forecast.beta"),
+                        0.0,
+                        0
+                );
+            case "holtwinters":
+                return new HoltWintersForecaster(
+                        config.getDouble("forecast.alpha"),
+                        config.getDouble("forecast.beta"),
+                        config.getDouble("forecast.gamma"),
+                        config.getInt("forecast.season")
+                );
+            case "rls":
+                return new RlsArForecaster(
+                        config.getInt("forecast.order"),
+                        config.getDouble("forecast.lambda")
+                );
+            default:
+                throw new IllegalArgumentException("Unknown forecast model: " + name);
+        }
+    }
+
+    /** RandomForest models named by "model.*" (predictions.mode=model). */
+    public EnsemblePredictor createEnsemblePredictor() {
+        TreeEnsemble regressor = TreeEnsembleLoader.load(config.get("model.regressor"));
+        String cls = config.get("model.classifier");
+        TreeEnsemble classifier = cls.equals("none") ? null : TreeEnsembleLoader.load(cls);
+        int threads = Math.max(1, config.getInt("model.threads"));
+        if (threads == ForkJoinPool.getCommonPoolParallelism()) {
+            return new EnsemblePredictor(regressor, classifier, ForkJoinPool.commonPool());
+        }
+        // Own pool: shut down when the predictor is closed
+        return new EnsemblePredictor(regressor, classifier, new ForkJoinPool(threads), true);
+    }
+}
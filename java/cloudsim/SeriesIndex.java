@@ -0,0 +1,56 @@
+package cloudsim;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Dense series index of the live VMs for the per-VM forecaster state
+ * (predictions.mode=online / model).
+ *
+ * Logic:
+ * - a VM gets an index on first use: a released one if any, else the next
+ * - a VM removed by the scaler gives its index back (the caller resets
+ *   that series), so the state stays bounded by the peak fleet size
+ *   rather than by every VM ever created
+ * - without removals the indexes follow the VM list order (= VM ids)
+ */
+final class SeriesIndex {
+
+    private final Map<Vm, Integer> index = new IdentityHashMap<>();
+    private int[] free = new int[0];
+    private int freeCount;
+    private int next;
+
+    /** Index of vm, assigned on first use. */
+    int of(Vm vm) {
+        Integer i = index.get(vm);
+        if (i != null) {
+            return i;
+        }
+        int s = (freeCount > 0) ? free[--freeCount] : next++;
+        index.put(vm, s);
+        return s;
+    }
+
+    /** Index of vm, or -1 if it has none yet. */
+    int peek(Vm vm) {
+        Integer i = index.get(vm);
+        return (i == null) ? -1 : i;
+    }
+
+    /** Give back vm's index; returns it, or -1 if it had none. */
+    int release(Vm vm) {
+        Integer i = index.remove(vm);
+        if (i == null) {
+            return -1;
+        }
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, Math.max(8, free.length * 2));
+        }
+        free[freeCount++] = i;
+        return i;
+    }
+}
@@ -0,0 +1,924 @@
+package cloudsim;
+
+import autoscaling.EnsemblePredictor;
+import autoscaling.FleetAggregator;
+import autoscaling.InterpolatingPredictionSource;
+import autoscaling.LookaheadPredictionSource;
+import autoscaling.OnlineForecaster;
+import autoscaling.PredictionLoader;
+import autoscaling.PredictionSource;
+import autoscaling.ResidualQuantileSource;
+import autoscaling.Resource;
+import autoscaling.ScalingMetrics;
+import autoscaling.ScalingPolicy;
+import autoscaling.StreamingMetrics;
+import autoscaling.StreamingPredictionSource;
+import autoscaling.SyntheticPredictionSource;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Single configurable simulation runner.
+ *
+ * mode (see ScenarioConfig):
+ * - predictive: policy acts on ML predictions (one VM, or the whole fleet),
+ *               or on online forecasts of the VMs' own CPU (predictions.mode=online),
+ *               or on the exported RandomForest models run live (predictions.mode=model)
+ * - reactive:   policy acts on the current average VM CPU in CloudSim
+ * - static:     fixed VM count, log only
+ *
+ * Long replays can save a checkpoint every checkpoint.interval slots and
+ * continue later from it with checkpoint.resume (see setUp()).
+ *
+ * Usage: SimulationRunner [--mode=...] [--config=file.properties] [--key=value ...]
+ */
+public class SimulationRunner {
+
+    private final ScenarioConfig config;
+    private final ScenarioFactory factory;
+    private final String mode;
+
+    // Prediction side (predictive mode only)
+    private final PredictionSource predictions;
+    private final boolean ownsPredictions;
+    private final InterpolatingPredictionSource interpolation;   // null = predictions.interpolate=none
+    private final StreamingPredictionSource stream;   // null = not predictions.mode=stream
+    private final int streamLag;                       // window start, in slots behind the evaluated slot
+    private FleetAggregator fleet;
+    private ResidualQuantileSource bounds;   // uncertainty.enabled: upper prediction bound
+    private PredictionSource ahead;   // predictions seen by the policy (bound, lead-time window)
+    private int followedVmId;
+    // Memory / network / disk the policy also scales on (policy.resources, if in the table)
+    private Resource[] extraResources = new Resource[0];
+    private FleetAggregator[] extraFleet;
+    private final long[] bottleneckTicks = new long[Resource.values().length];
+
+    // Online forecasting (predictions.mode=online)
+    private final OnlineForecaster forecaster;
+    private int forecastHorizon;
+    private int lastForecastSlot = -1;
+    private double lastForecast = Double.NaN;
+    private long forecastNanos;
+    private long forecastSlots;
+
+    // Live RandomForest inference (predictions.mode=model)
+    private final EnsemblePredictor ensemble;
+    private int[] ensembleSeries = new int[0];
+    private double lastHighLoadShare = Double.NaN;
+
+    // Series of the live VMs in the forecaster / ensemble state
+    private final SeriesIndex series = new SeriesIndex();
+
+    // Simulation side
+    private CloudSim simulation;
+    private List<Vm> vmList;
+    private VmScaler scaler;
+    private VerticalVmScaler vertical;
+    private double bootDelay;
+    private EnergyMeter energy;
+    private EnergyAwareVmAllocationPolicy placement;
+    private ScalingPolicy policy;
+    private final ScalingMetrics metrics = new ScalingMetrics();
+    private ResultsWriter results;
+    private int currentSlot;
+    private boolean echo;
+    private int echoEvery;
+    private TickMetrics tickMetrics;   // null = metrics.enabled=false
+    private StreamingMetrics slaMetrics; // null = output.summaryPath=none
+
+    // Slot mapping and scheduling (schedule.*)
+    private double slotDuration;
+    private SlotScheduler scheduler;   // null = schedule.mode=tick
+    private double steadyTolerance;
+    private int lastEvaluatedSlot = -1;
+    private int batchFirstSlot;        // first slot covered by this evaluation
+    private boolean lastActed;
+    private double lastSignal = Double.NaN;
+
+    // Checkpoint / resume (checkpoint.*)
+    private String checkpointPath;
+    private int checkpointInterval;    // slots between checkpoints, 0 = off
+    private int nextCheckpointSlot;
+    private long checkpointsWritten;
+    private double timeOffset;         // resumed run: checkpoint time (CloudSim restarts at 0)
+
+    // Run summary accumulators
+    private double slaCpuThreshold;
+    private long ticks;
+    private double lastTickTime;
+    private int lastVmCount;
+    private double vmTime;
+    private long slaViolations;
+
+    public static void main(String[] args) {
+        run(ScenarioConfig.fromArgs("predictive", args));
+    }
+
+    public static RunSummary run(ScenarioConfig config) {
+        return new SimulationRunner(config, null).execute();
+    }
+
+    /**
+     * @param sharedPredictions an already loaded, read-only prediction
+     *        table to use instead of opening predictions.path (may be null)
+     */
+    public SimulationRunner(ScenarioConfig config, PredictionSource sharedPredictions) {
+        this.config = config;
+        this.factory = new ScenarioFactory(config);
+        this.mode = config.mode();
+
+        String source = config.get("predictions.mode");
+        boolean predictive = mode.equals("predictive");
+        this.forecaster = (predictive && source.equals("online")) ? factory.createForecaster() : null;
+        this.ensemble = (predictive && source.equals("model")) ? factory.createEnsemblePredictor() : null;
+        boolean live = forecaster != null || ensemble != null;
+
+        PredictionSource table;
+        if (!predictive || live || sharedPredictions != null) {
+            table = live ? null : sharedPredictions;
+            this.ownsPredictions = false;
+        } else if (config.getInt("regions.count") > 1 && source.equals("stream")) {
+            // Regions cut slices up front and read them from a thread pool
+            System.out.println("Streaming source is single-reader; multi-region run loads the full table instead");
+            table = openPredictions(config.copy().set("predictions.mode", "auto"));
+            this.ownsPredictions = true;
+        } else {
+            factory.checkStreamReaders();
+            table = openPredictions(config);
+            this.ownsPredictions = true;
+        }
+        // The runner moves a stream's window: wrappers read it by index, which never reads ahead
+        this.stream = (table instanceof StreamingPredictionSource) ? (StreamingPredictionSource) table : null;
+        this.streamLag = (stream != null) ? config.getInt("predictions.lookahead") - factory.streamReach() : 0;
+        // Missing slots filled from neighbours (multi-region wraps each slice instead)
+        if (table != null && config.getInt("regions.count") <= 1) {
+            table = factory.interpolate(table);
+        }
+        this.predictions = table;
+        this.interpolation = (table instanceof InterpolatingPredictionSource)
+                ? (InterpolatingPredictionSource) table : null;
+    }
+
+    static PredictionSource openPredictions(ScenarioConfig config) {
+        String csvPath = config.get("predictions.path");
+        if (config.get("predictions.mode").equals("synthetic")) {
+            return new SyntheticPredictionSource(new ScenarioFactory(config).createSyntheticTrace());
+        }
+        if (config.get("predictions.mode").equals("stream")) {
+            return new StreamingPredictionSource(csvPath, config.getInt("predictions.lookahead"));
+        }
+        return new PredictionLoader(csvPath).source();
+    }
+
+    public RunSummary execute() {
+        if (config.getInt("regions.count") > 1) {
+            if (!config.get("checkpoint.resume").equals("none")) {
+                throw new IllegalArgumentException("checkpoint.resume supports single-region runs only");
+            }
+            if (factory.verticalScaling()) {
+                throw new IllegalArgumentException("scaling.mode=vertical supports single-region runs only");
+            }
+            try {
+                return new MultiRegionRunner(config, predictions).execute();
+            } finally {
+                closePredictions();
+            }
+        }
+
+        String resultsPath = config.get("output.path");
+        this.echo = config.getBoolean("output.echo");
+        this.echoEvery = Math.max(1, config.getInt("output.echoEvery"));
+        if (echo) {
+            System.out.println("=== " + mode + " autoscaling with CloudSim Plus ===");
+        }
+
+        // CSV header (reactive logs observed CPU instead of a prediction)
+        boolean reactive = mode.equals("reactive");
+        String header = reactive
+                ? "time,slot,avg_cpu_percent,vm_count"
+                : "time,slot,vm_id,pred_cpu,vm_count";
+        if (!resultsPath.equals("none") && config.getBoolean("output.compress")
+                && !resultsPath.endsWith(".gz")) {
+            resultsPath += ".gz";
+        }
+
+        // output.path=none: keep the summary only (e.g. sweeps)
+        try (ResultsWriter writer = resultsPath.equals("none")
+                ? ResultsWriter.discard()
+                : ResultsWriter.open(resultsPath, header, !reactive, resultsPath.endsWith(".gz"))) {
+            setUp(writer);
+
+            // 5) Run simulation
+            long start = System.nanoTime();
+            simulation.start();
+            long wallMs = (System.nanoTime() - start) / 1_000_000;
+
+            double endTime = simulation.clock() + timeOffset;
+            vmTime += lastVmCount * Math.max(0.0, endTime - lastTickTime);
+            energy.sample(endTime);
+            if (tickMetrics != null) {
+                tickMetrics.close(endTime);
+            }
+            String summaryPath = config.get("output.summaryPath");
+            if (slaMetrics != null) {
+                slaMetrics.finish(endTime, energy.getTotalJoules());
+                slaMetrics.writeSummary(summaryPath, mode, config.get("policy"));
+            }
+            long actions = (vertical != null) ? vertical.getScalingActions() : scaler.getScalingActions();
+            RunSummary summary = new RunSummary(ticks, endTime, vmTime, energy.getTotalJoules(),
+                    slaViolations, actions, vmList.size(), wallMs,
+                    scaler.getVmsCreated() + scaler.getVmsDestroyed(),
+                    (vertical != null) ? vertical.getResizes() : 0);
+
+            String energyPath = config.get("output.energyPath");
+            if (!energyPath.equals("none")) {
+                energy.writeHostTotals(energyPath);
+            }
+
+            if (echo) {
+                System.out.println("=== Simulation finished ===");
+                if (fleet != null) {
+                    System.out.printf("Fleet aggregation: %d VMs, %.1f us/tick over %d ticks%n",
+                            predictions.vmCount(), fleet.meanMicrosPerTick(), fleet.ticks());
+                }
+                if (extraResources.length > 0) {
+                    StringBuilder sb = new StringBuilder("Bottleneck resource (ticks):");
+                    for (Resource r : Resource.values()) {
+                        sb.append(' ').append(r.column()).append('=').append(bottleneckTicks[r.ordinal()]);
+                    }
+                    System.out.println(sb);
+                }
+                if (vertical != null) {
+                    System.out.printf("Vertical scaling: %d grows, %d shrinks, %d VMs added / %d removed "
+                                    + "(host full / all at base size), capacity %d base VMs on %d VMs%n",
+                            vertical.getGrows(), vertical.getShrinks(), vertical.getFallbackUps(),
+                            vertical.getFallbackDowns(), vertical.capacity(), vmList.size());
+                }
+                if (scheduler != null) {
+                    System.out.printf("Slot scheduler (%.0f per slot): %d evaluations, %d steady slots skipped%n",
+                            slotDuration, scheduler.getEvaluations(), scheduler.getSkippedSlots());
+                }
+                if (bounds != null) {
+                    System.out.printf("Upper bound (risk %s, classifier weight %s): %.1f%% of %d residuals "
+                                    + "within the bound, mean margin %+.2f CPU points%n",
+                            config.get("uncertainty.risk"), config.get("uncertainty.classifierWeight"),
+                            bounds.coverage() * 100.0, bounds.observations(), bounds.meanMargin());
+                }
+                if (interpolation != null) {
+                    System.out.printf("Prediction interpolation (%s): %d exact, %d interpolated "
+                                    + "(%d from the neighbour cache), %d missing%n",
+                            config.get("predictions.interpolate"), interpolation.exactCount(),
+                            interpolation.interpolatedCount(), interpolation.cacheHits(),
+                            interpolation.missingCount());
+                }
+                if (forecaster != null && forecastSlots > 0) {
+                    System.out.printf("Online forecaster %s: %.1f us/slot over %d slots%n",
+                            forecaster.name(), forecastNanos / 1e3 / forecastSlots, forecastSlots);
+                }
+                if (ensemble != null && forecastSlots > 0) {
+                    System.out.printf("RandomForest inference: %.1f us/batch over %d slots%n",
+                            ensemble.meanMicrosPerBatch(), forecastSlots);
+                }
+                if (placement != null) {
+                    System.out.printf("Energy-aware placement: %d migrations, %d host power-offs, "
+                                    + "%d active hosts at the end, %.1f us/placement%n",
+                            placement.getMigrations(), placement.getPowerOffs(),
+                            placement.getActiveHosts(), placement.meanMicrosPerPlacement());
+                }
+                if (tickMetrics != null) {
+                    tickMetrics.print();
+                }
+                if (checkpointsWritten > 0) {
+                    System.out.printf("Checkpoints: %d written (every %d slots), last -> %s%n",
+                            checkpointsWritten, checkpointInterval, checkpointPath);
+                }
+                if (slaMetrics != null) {
+                    System.out.println("SLA / cost: " + slaMetrics + " -> " + summaryPath);
+                }
+                System.out.printf("Energy (%s, power.model=%s): %.1f J, metering %.1f us/tick%n",
+                        config.get("policy"), config.get("power.model"),
+                        energy.getTotalJoules(), energy.meanMicrosPerSample());
+                System.out.println("Summary: " + summary);
+                System.out.println("Results saved to: " + resultsPath);
+            }
+            return summary;
+
+        } finally {
+            closePredictions();
+        }
+    }
+
+    private void closePredictions() {
+        if (ensemble != null) {
+            ensemble.close();
+        }
+        if (ownsPredictions && predictions instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) predictions).close();
+            } catch (Exception e) {
+                System.out.println("Failed to close prediction source: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Steps 1-4 of a run: CloudSim entities, policy, prediction side and
+     * the clock-tick listener, without starting the simulation.
+     * (Benchmarks call this and then drive tick() directly.)
+     *
+     * With checkpoint.resume the entities are rebuilt from the checkpoint:
+     * a new CloudSim with the checkpointed VM count, run counters, policy,
+     * scaling, energy and SLA state and the prediction cursor restored.
+     * CloudSim restarts at 0, so tick times are shifted by the checkpoint
+     * time and simulation.duration stays the end of the whole replay.
+     */
+    void setUp(ResultsWriter writer) {
+        String resume = config.get("checkpoint.resume");
+        try (DataInputStream in = resume.equals("none") ? null : Checkpoint.open(resume)) {
+            setUp(writer, in);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    private void setUp(ResultsWriter writer, DataInputStream checkpoint) throws IOException {
+        this.results = writer;
+        this.slaCpuThreshold = config.getDouble("sla.cpuThreshold");
+        this.checkpointPath = config.get("checkpoint.path");
+        this.checkpointInterval = config.getInt("checkpoint.interval");
+        if (factory.verticalScaling() && (checkpointInterval > 0 || checkpoint != null)) {
+            // The checkpoint keeps the VM count, not per-VM sizes
+            throw new IllegalArgumentException("checkpoint.* supports scaling.mode=horizontal only");
+        }
+        int initialVms = config.getInt("vm.initial");
+        int resumeSlot = -1;
+        if (checkpoint != null) {
+            initialVms = readCheckpointHead(checkpoint);
+            resumeSlot = currentSlot;
+        }
+
+        // 1) Setup CloudSim simulation
+        simulation = new CloudSim();
+        double duration = config.getDouble("simulation.duration");
+        if (duration > 0) {
+            if (duration <= timeOffset) {
+                throw new IllegalArgumentException("simulation.duration " + duration
+                        + " is not past the checkpoint time " + timeOffset);
+            }
+            simulation.terminateAt(duration - timeOffset);
+        }
+        Datacenter datacenter = factory.createDatacenter(simulation);
+        energy = new EnergyMeter(datacenter.getHostList());
+        DatacenterBrokerSimple broker = new DatacenterBrokerSimple(simulation);
+        if (datacenter.getVmAllocationPolicy() instanceof EnergyAwareVmAllocationPolicy) {
+            // Place on predicted CPU, largest demand first (best-fit-decreasing)
+            placement = (EnergyAwareVmAllocationPolicy) datacenter.getVmAllocationPolicy();
+            placement.setPredictedCpu(this::predictedVmCpu);
+            broker.setVmComparator(placement.demandComparator());
+        }
+
+        // 2) Initial VMs and cloudlets
+        vmList = factory.createVms(initialVms);
+        broker.submitVmList(vmList);
+
+        List<Cloudlet> cloudletList = factory.createCloudlets(simulation);
+        broker.submitCloudletList(cloudletList);
+
+        // 3) Policy and scaling
+        policy = factory.createPolicy();
+        scaler = new VmScaler(broker, factory, vmList);
+        scaler.setPlacement(placement);
+        scaler.setOnRemove(this::forgetSeries);
+        bootDelay = config.getDouble("vm.bootDelay");
+        scaler.setDelays(bootDelay, config.getDouble("vm.shutdownDelay"));
+        if (factory.verticalScaling()) {
+            vertical = new VerticalVmScaler(scaler, vmList, datacenter.getHostList(), config.getInt("vm.pes"),
+                    config.getLong("vm.ram"), factory.verticalMaxPes());
+        }
+
+        forecastHorizon = Math.max(1, config.getInt("forecast.horizon"));
+        if (predictions != null) {
+            followedVmId = config.getInt("predictions.vmId");
+            extraResources = factory.policyResources(predictions);
+            bounds = factory.uncertainty(predictions, config.getBoolean("predictions.fleet"));
+            ahead = factory.lookahead(bounds != null ? bounds : predictions);
+            if (config.getBoolean("predictions.fleet")) {
+                // Slots relative to each VM's first slot (Bitbrains export)
+                fleet = new FleetAggregator(ahead, true);
+                extraFleet = new FleetAggregator[extraResources.length];
+                for (int k = 0; k < extraResources.length; k++) {
+                    extraFleet[k] = new FleetAggregator(ahead, true, extraResources[k]);
+                }
+            }
+        }
+        if (echo && ahead instanceof LookaheadPredictionSource) {
+            System.out.printf("Lead time: predictions %d slots ahead (vm.bootDelay=%s, schedule.leadMargin=%s)%n",
+                    ((LookaheadPredictionSource) ahead).lookahead(),
+                    config.get("vm.bootDelay"), config.get("schedule.leadMargin"));
+        }
+        if (echo && config.get("policy.maxVms").equals("auto")) {
+            System.out.printf("Host capacity: %d VMs per host (limited by %s), policy.maxVms=%d%n",
+                    factory.vmsPerHost(), factory.hostBottleneck(), factory.maxVms());
+        }
+
+        if (!config.get("output.summaryPath").equals("none")) {
+            slaMetrics = new StreamingMetrics(slaCpuThreshold);
+        }
+        if (config.getBoolean("metrics.enabled")) {
+            tickMetrics = new TickMetrics(config.get("metrics.path"), config.getDouble("metrics.dumpInterval"));
+        }
+
+        // 4) Hook into simulation clock, or evaluate on slot boundaries
+        slotDuration = config.getDouble("schedule.slotDuration");
+        String schedule = config.get("schedule.mode");
+        switch (schedule) {
+            case "tick":
+                simulation.addOnClockTickListener(this::onClockTick);
+                break;
+            case "slot":
+                steadyTolerance = config.getDouble("schedule.tolerance");
+                scheduler = new SlotScheduler(simulation, slotDuration,
+                        config.getInt("schedule.maxBatch"), this::evaluateSlot);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown schedule mode: " + schedule);
+        }
+        lastVmCount = vmList.size();
+
+        if (checkpoint != null) {
+            readCheckpointState(checkpoint);
+            if (echo) {
+                System.out.printf("Resumed from %s at t=%.2f slot=%d with %d VMs%n",
+                        config.get("checkpoint.resume"), timeOffset, resumeSlot, vmList.size());
+            }
+        }
+        if (checkpointInterval > 0) {
+            nextCheckpointSlot = (resumeSlot < 0) ? checkpointInterval
+                    : (resumeSlot / checkpointInterval + 1) * checkpointInterval;
+        }
+    }
+
+    CloudSim getSimulation() { return simulation; }
+
+    private void onClockTick(EventInfo evt) {
+        tick(evt.getTime() + timeOffset);
+    }
+
+    /**
+     * One SlotScheduler evaluation: a tick covering every slot since the
+     * previous evaluation. Steady = no scaling action and the CPU signal
+     * moved by at most schedule.tolerance.
+     */
+    private boolean evaluateSlot(double time) {
+        double before = lastSignal;
+        tick(time + timeOffset);
+        double signal = metrics.signal();
+        lastSignal = signal;
+        boolean unchanged = (signal != signal) ? before != before : Math.abs(signal - before) <= steadyTolerance;
+        return !lastActed && unchanged;
+    }
+
+    /** One clock-tick listener iteration at the given simulation time. */
+    void tick(double time) {
+        long tickStart = probeStart();
+        int slot = (int) (time / slotDuration);     // every schedule.slotDuration = one slot
+        currentSlot = slot;
+        // Slot mode: a late evaluation covers the slots skipped since the previous one
+        batchFirstSlot = (scheduler != null && lastEvaluatedSlot >= 0 && slot - lastEvaluatedSlot > 1)
+                ? lastEvaluatedSlot + 1 : slot;
+        lastEvaluatedSlot = slot;
+        scaler.releaseDrained();
+        int currentVmCount = capacity();
+
+        // CloudSim gives utilization as [0,1], convert to %
+        double sum = 0.0;
+        for (Vm vm : vmList) {
+            sum += vm.getCpuPercentUtilization() * 100.0;
+        }
+        double avgCpuPercent = vmList.isEmpty() ? 0.0 : sum / vmList.size();
+
+        // Summary: VM-time since the previous tick, SLA check on observed CPU
+        ticks++;
+        vmTime += lastVmCount * (time - lastTickTime);
+        lastTickTime = time;
+        if (avgCpuPercent > slaCpuThreshold) {
+            slaViolations++;
+        }
+        // Host power since the previous tick (before this tick's scaling)
+        long t = probeStart();
+        energy.sample(time);
+        probeEnd(TickMetrics.ENERGY, t);
+
+        switch (mode) {
+            case "predictive":
+                predictiveTick(time, slot, currentVmCount, avgCpuPercent);
+                break;
+            case "reactive":
+                reactiveTick(time, slot, currentVmCount, avgCpuPercent);
+                break;
+            default:
+                staticTick(time, slot, currentVmCount, avgCpuPercent);
+        }
+        if (placement != null) {
+            placement.onTick(time, slot);
+        }
+        lastVmCount = capacity();
+
+        if (tickMetrics != null) {
+            tickMetrics.tick();
+            tickMetrics.record(TickMetrics.TICK, System.nanoTime() - tickStart);
+            tickMetrics.maybeDump(time);
+        }
+        if (checkpointInterval > 0 && slot >= nextCheckpointSlot) {
+            writeCheckpoint(time, slot);
+            nextCheckpointSlot = (slot / checkpointInterval + 1) * checkpointInterval;
+        }
+    }
+
+    // ------------ Checkpoint ------------
+
+    /**
+     * Snapshot at the end of a tick: where the run is (time, slot, VM
+     * count), the summary accumulators and slot-scheduler state, then one
+     * section per stateful component. Not captured: cloudlet progress and
+     * other CloudSim internals (the workload is resubmitted on resume) and
+     * online / model forecaster history (warms up again).
+     */
+    private void writeCheckpoint(double time, int slot) {
+        Checkpoint.write(checkpointPath, out -> {
+            out.writeUTF(mode);
+            out.writeUTF(config.get("policy"));
+            out.writeDouble(time);
+            out.writeInt(slot);
+            out.writeInt(vmList.size());
+
+            out.writeLong(ticks);
+            out.writeDouble(lastTickTime);
+            out.writeInt(lastVmCount);
+            out.writeDouble(vmTime);
+            out.writeLong(slaViolations);
+            out.writeInt(lastEvaluatedSlot);
+            out.writeBoolean(lastActed);
+            out.writeDouble(lastSignal);
+
+            Checkpoint.writeSection(out, metrics);
+            Checkpoint.writeSection(out, policy);
+            Checkpoint.writeSection(out, scaler);
+            Checkpoint.writeSection(out, energy);
+            Checkpoint.writeSection(out, slaMetrics);
+            Checkpoint.writeSection(out, predictions);
+            Checkpoint.writeSection(out, bounds);
+        });
+        checkpointsWritten++;
+    }
+
+    // Scenario check and position; returns the VM count to start with
+    private int readCheckpointHead(DataInputStream in) throws IOException {
+        String ckMode = in.readUTF();
+        String ckPolicy = in.readUTF();
+        if (!ckMode.equals(mode) || !ckPolicy.equals(config.get("policy"))) {
+            throw new IOException("checkpoint is for mode=" + ckMode + ", policy=" + ckPolicy
+                    + " but the scenario is mode=" + mode + ", policy=" + config.get("policy"));
+        }
+        timeOffset = in.readDouble();
+        currentSlot = in.readInt();
+        return in.readInt();
+    }
+
+    private void readCheckpointState(DataInputStream in) throws IOException {
+        ticks = in.readLong();
+        lastTickTime = in.readDouble();
+        lastVmCount = in.readInt();
+        vmTime = in.readDouble();
+        slaViolations = in.readLong();
+        lastEvaluatedSlot = in.readInt();
+        lastActed = in.readBoolean();
+        lastSignal = in.readDouble();
+
+        Checkpoint.readSection(in, metrics, "scaling metrics");
+        Checkpoint.readSection(in, policy, "policy");
+        Checkpoint.readSection(in, scaler, "scaler");
+        Checkpoint.readSection(in, energy, "energy");
+        Checkpoint.readSection(in, slaMetrics, "SLA metrics");
+        Checkpoint.readSection(in, predictions, "prediction cursor");
+        Checkpoint.readSection(in, bounds, "residual quantiles");
+    }
+
+    private void predictiveTick(double time, int slot, int currentVmCount, double avgCpuPercent) {
+        int vmId;
+        double rawPredCpu;
+
+        long t = probeStart();
+        if (stream != null) {
+            // Keep slot .. slot + streamReach() in the window, and as many past slots as fit
+            stream.advanceTo(slot - streamLag);
+        }
+        if (bounds != null) {
+            bounds.observe(slot);   // residuals known by now, before the bounds are read
+        }
+        if (forecaster != null) {
+            vmId = -1;  // whole fleet, forecast from CloudSim's own utilisation
+            rawPredCpu = onlineForecast(slot);
+            metrics.update(time, rawPredCpu, avgCpuPercent, currentVmCount);
+        } else if (ensemble != null) {
+            vmId = -1;  // whole fleet, RandomForest on each VM's CPU window
+            rawPredCpu = ensembleForecast(slot);
+            metrics.update(time, rawPredCpu, avgCpuPercent, currentVmCount)
+                    .withHighLoadShare(lastHighLoadShare);
+        } else if (fleet != null) {
+            vmId = -1;  // whole fleet; a batch of slots decides on its busiest one
+            rawPredCpu = Double.NaN;
+            double share = Double.NaN;
+            for (int s = batchFirstSlot; s <= slot; s++) {
+                fleet.aggregate(s);
+                if (fleet.count() > 0) {
+                    rawPredCpu = maxOf(rawPredCpu, fleet.p95());
+                    share = maxOf(share, fleet.highLoadShare());
+                }
+            }
+            metrics.update(time, rawPredCpu, Double.NaN, currentVmCount)
+                    .withHighLoadShare(share);
+            for (int k = 0; k < extraResources.length; k++) {
+                double p95 = Double.NaN;
+                for (int s = batchFirstSlot; s <= slot; s++) {
+                    extraFleet[k].aggregate(s);
+                    p95 = maxOf(p95, extraFleet[k].p95());
+                }
+                metrics.withResource(extraResources[k], p95);
+            }
+        } else {
+            vmId = followedVmId;
+            // Primitive lookup: no PredictionRecord allocated per tick
+            rawPredCpu = Double.NaN;
+            for (int s = batchFirstSlot; s <= slot; s++) {
+                rawPredCpu = maxOf(rawPredCpu, ahead.predCpu(vmId, s));
+            }
+            metrics.update(time, rawPredCpu, Double.NaN, currentVmCount);
+            for (Resource r : extraResources) {
+                double v = Double.NaN;
+                for (int s = batchFirstSlot; s <= slot; s++) {
+                    v = maxOf(v, ahead.pred(r, vmId, s));
+                }
+                metrics.withResource(r, v);
+            }
+        }
+        if (extraResources.length > 0) {
+            bottleneckTicks[metrics.bottleneck().ordinal()]++;
+        }
+        if (tickMetrics != null) {
+            tickMetrics.record(TickMetrics.LOOKUP, System.nanoTime() - t);
+            // Fleet: every table VM without a prediction for this slot
+            tickMetrics.predictionMisses(fleet != null
+                    ? predictions.vmCount() - fleet.count()
+                    : Double.isNaN(rawPredCpu) ? 1 : 0);
+        }
+
+        if (slaMetrics != null) {
+            // Actual CPU: the table's target (fleet: summed over VMs), else observed
+            double actual;
+            if (fleet != null) {
+                actual = slaMetrics.observeFleet(predictions, slot, true);
+            } else if (predictions != null) {
+                actual = predictions.targetCpu(vmId, slot);
+                // Forecast error of the table itself, not of the lead-time window
+                slaMetrics.forecast(ahead == predictions ? rawPredCpu : predictions.predCpu(vmId, slot), actual);
+            } else {
+                actual = avgCpuPercent;
+            }
+            slaMetrics.sample(time, serving(currentVmCount), actual);
+        }
+
+        int newVmCount = decide(currentVmCount);
+        double predCpu = Double.isNaN(rawPredCpu) ? -1.0 : rawPredCpu;
+
+        if (echoTick()) {
+            System.out.printf(
+                    "t=%.0f slot=%d, vmId=%d, predCpu=%.2f, VMs: %d -> %d%n",
+                    time, slot, vmId, predCpu, currentVmCount, newVmCount
+            );
+        }
+
+        // Log to CSV (queued; encoded and written on the writer thread)
+        t = probeStart();
+        results.append(time, slot, vmId, predCpu, currentVmCount);
+        probeEnd(TickMetrics.RESULTS, t);
+
+        apply(time, newVmCount);
+    }
+
+    private void reactiveTick(double time, int slot, int currentVmCount, double avgCpuPercent) {
+        // No prediction: the policy acts on the observed CPU
+        metrics.update(time, Double.NaN, avgCpuPercent, currentVmCount);
+        if (slaMetrics != null) {
+            slaMetrics.sample(time, serving(currentVmCount), avgCpuPercent);
+        }
+        int newVmCount = decide(currentVmCount);
+
+        if (echoTick()) {
+            System.out.printf(
+                    "t=%.2f slot=%d, avgCpu=%.2f%%, VMs: %d -> %d%n",
+                    time, slot, avgCpuPercent, currentVmCount, newVmCount
+            );
+        }
+
+        // Log BEFORE scaling, just like predictive/static
+        long t = probeStart();
+        results.append(time, slot, -1, avgCpuPercent, currentVmCount);
+        probeEnd(TickMetrics.RESULTS, t);
+
+        apply(time, newVmCount);
+    }
+
+    private void staticTick(double time, int slot, int vmCount, double avgCpuPercent) {
+        int vmId = 1;           // just for logging consistency
+        double predCpu = -1.0;  // no prediction in static baseline
+        if (slaMetrics != null) {
+            slaMetrics.sample(time, vmCount, avgCpuPercent);
+        }
+
+        if (echoTick()) {
+            System.out.printf(
+                    "t=%.2f slot=%d, vmId=%d, predCpu=%.2f, VMs=%d%n",
+                    time, slot, vmId, predCpu, vmCount
+            );
+        }
+
+        long t = probeStart();
+        results.append(time, slot, vmId, predCpu, vmCount);
+        probeEnd(TickMetrics.RESULTS, t);
+    }
+
+    /**
+     * Once per slot: feed every VM's current CPU % to the forecaster and
+     * return the mean forecast forecast.horizon slots ahead (clamped to
+     * [0,100]). Ticks inside the same slot reuse that forecast.
+     */
+    private double onlineForecast(int slot) {
+        if (slot == lastForecastSlot) {
+            return lastForecast;
+        }
+        long start = System.nanoTime();
+
+        double sum = 0.0;
+        int n = 0;
+        for (Vm vm : vmList) {
+            if (vm.getId() < 0) {
+                continue;   // not submitted yet
+            }
+            int s = series.of(vm);
+            forecaster.observe(s, vm.getCpuPercentUtilization() * 100.0);
+            double f = forecaster.forecast(s, forecastHorizon);
+            if (f == f) {
+                sum += f;
+                n++;
+            }
+        }
+        lastForecast = (n == 0) ? Double.NaN : Math.max(0.0, Math.min(100.0, sum / n));
+        lastForecastSlot = slot;
+
+        forecastNanos += System.nanoTime() - start;
+        forecastSlots++;
+        return lastForecast;
+    }
+
+    /**
+     * Once per slot: push every VM's CPU % into its feature window, run
+     * the regressor (and classifier) over all VMs with a full window in
+     * one batch, and return the mean predicted CPU. The share of VMs
+     * flagged high-load is kept for the policy.
+     */
+    private double ensembleForecast(int slot) {
+        if (slot == lastForecastSlot) {
+            return lastForecast;
+        }
+        int n = 0;
+        if (ensembleSeries.length < vmList.size()) {
+            ensembleSeries = new int[Math.max(vmList.size(), ensembleSeries.length * 2)];
+        }
+        for (Vm vm : vmList) {
+            if (vm.getId() < 0) {
+                continue;   // not submitted yet
+            }
+            int s = series.of(vm);
+            ensemble.observe(s, vm.getCpuPercentUtilization() * 100.0);
+            ensembleSeries[n++] = s;
+        }
+
+        int predicted = ensemble.predict(ensembleSeries, n);
+        double sum = 0.0;
+        int high = 0;
+        for (int i = 0; i < n; i++) {
+            double p = ensemble.predCpuAt(i);
+            if (p == p) {
+                sum += p;
+                if (ensemble.highLoadAt(i)) high++;
+            }
+        }
+        lastForecast = (predicted == 0) ? Double.NaN : sum / predicted;
+        lastHighLoadShare = (predicted == 0) ? Double.NaN : (double) high / predicted;
+        lastForecastSlot = slot;
+
+        forecastNanos += ensemble.lastNanos();
+        forecastSlots++;
+        return lastForecast;
+    }
+
+    /**
+     * Predicted CPU % of a simulated VM for the energy-aware placement:
+     * simulated VM k replays table VM (k mod table size), slots aligned to
+     * that VM's first slot; online mode uses the VM's own forecast.
+     */
+    private double predictedVmCpu(Vm vm) {
+        long id = vm.getId();
+        if (id < 0) {
+            return Double.NaN;   // not submitted yet
+        }
+        if (predictions != null && predictions.vmCount() > 0) {
+            int i = (int) (id % predictions.vmCount());
+            return predictions.predCpuAt(i, predictions.firstSlotAt(i) + currentSlot);
+        }
+        if (forecaster != null) {
+            int s = series.peek(vm);
+            return (s < 0) ? Double.NaN : forecaster.forecast(s, forecastHorizon);
+        }
+        return Double.NaN;
+    }
+
+    // A removed VM's series is cleared and its index reused by a later VM
+    private void forgetSeries(Vm vm) {
+        int s = series.release(vm);
+        if (s < 0) {
+            return;
+        }
+        if (forecaster != null) {
+            forecaster.reset(s);
+        }
+        if (ensemble != null) {
+            ensemble.reset(s);
+        }
+    }
+
+    // Console echo of every output.echoEvery-th tick
+    private boolean echoTick() {
+        return echo && (ticks - 1) % echoEvery == 0;
+    }
+
+    private int decide(int currentVmCount) {
+        long t = probeStart();
+        int n = (policy == null) ? currentVmCount : policy.decideVmCount(metrics);
+        probeEnd(TickMetrics.DECISION, t);
+        return n;
+    }
+
+    private void apply(double time, int newVmCount) {
+        long t = probeStart();
+        int before = capacity();
+        lastActed = (vertical != null) ? vertical.scaleTo(newVmCount, time) : scaler.scaleTo(newVmCount);
+        if (lastActed && slaMetrics != null) {
+            slaMetrics.scalingAction(before, capacity());
+        }
+        if (lastActed) {
+            metrics.markAction(time);
+            if (tickMetrics != null) {
+                probeEnd(TickMetrics.SCALING, t);
+                tickMetrics.scalingAction();
+            }
+        }
+    }
+
+    // VMs carrying load: with vm.bootDelay the VMs still booting do not count
+    private int serving(int currentVmCount) {
+        return bootDelay > 0 ? currentVmCount - scaler.getBootingCount() : currentVmCount;
+    }
+
+    // Provisioned VMs; vertical mode counts capacity in base VMs (vm.pes each)
+    private int capacity() {
+        return (vertical != null) ? vertical.capacity() : vmList.size();
+    }
+
+    // Larger of a and b, ignoring NaN
+    private static double maxOf(double a, double b) {
+        return (b != b || a >= b) ? a : b;
+    }
+
+    // Latency probes: no clock reads at all when metrics are off
+    private long probeStart() {
+        return (tickMetrics == null) ? 0L : System.nanoTime();
+    }
+
+    private void probeEnd(int probe, long start) {
+        if (tickMetrics != null) {
+            tickMetrics.record(probe, System.nanoTime() - start);
+        }
+    }
+}
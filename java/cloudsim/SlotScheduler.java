@@ -0,0 +1,71 @@
+package cloudsim;
+
+import org.cloudbus.cloudsim.core.CloudSimEntity;
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+
+import java.util.function.DoublePredicate;
+
+/**
+ * Scaling evaluations on fixed slot boundaries (schedule.mode=slot),
+ * driven by events on the CloudSim queue instead of the clock-tick
+ * listener.
+ *
+ * Logic:
+ * - the first evaluation runs at slotDuration (at time 0 the broker does
+ *   not know the datacenter yet), then one every slotDuration
+ * - the evaluation reports whether it was steady (no scaling action and
+ *   a signal that barely moved); while evaluations stay steady the next
+ *   one is pushed out, doubling up to maxBatch slots; any change brings
+ *   it back to every slot. The evaluation that wakes up after a gap sees
+ *   all the slots that elapsed (batched by the runner)
+ * - no more evaluations are scheduled once the rest of the simulation has
+ *   no future events, so the run still ends on its own
+ */
+class SlotScheduler extends CloudSimEntity {
+
+    private final double slotDuration;
+    private final int maxBatch;
+    private final DoublePredicate evaluate;
+
+    private int span = 1;
+    private long evaluations;
+    private long skippedSlots;
+
+    /**
+     * @param evaluate runs one evaluation at the given time; returns true when steady
+     */
+    SlotScheduler(Simulation simulation, double slotDuration, int maxBatch, DoublePredicate evaluate) {
+        super(simulation);
+        if (slotDuration <= 0) {
+            throw new IllegalArgumentException("schedule.slotDuration must be > 0: " + slotDuration);
+        }
+        this.slotDuration = slotDuration;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.evaluate = evaluate;
+        setName("slot-scheduler");
+    }
+
+    @Override
+    protected void startInternal() {
+        schedule(slotDuration, CloudSimTag.NONE);
+    }
+
+    @Override
+    public void processEvent(SimEvent evt) {
+        if (evt.getTag() != CloudSimTag.NONE) return;
+        boolean steady = evaluate.test(evt.getTime());
+        evaluations++;
+        skippedSlots += span - 1;
+        span = steady ? Math.min(maxBatch, span * 2) : 1;
+
+        // Keep going only while something else is still going to happen
+        if (getSimulation().isThereAnyFutureEvt(e -> e.getDestination() != this)) {
+            schedule(span * slotDuration, CloudSimTag.NONE);
+        }
+    }
+
+    long getEvaluations() { return evaluations; }
+    long getSkippedSlots() { return skippedSlots; }
+}
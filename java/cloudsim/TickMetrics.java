@@ -0,0 +1,128 @@
+package cloudsim;
+
+import autoscaling.LatencyHistogram;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Latency histograms and counters for the clock-tick listener
+ * (metrics.enabled=true).
+ *
+ * Logic:
+ * - one LatencyHistogram per probe (prediction lookup, policy decision,
+ *   VM submission/destruction, results write, energy sample, whole tick)
+ * - counters: ticks, prediction misses (no prediction for the slot),
+ *   scaling actions
+ * - every metrics.dumpInterval of simulation time the interval histograms
+ *   are written to metrics.path (one row per probe) and folded into the
+ *   run totals
+ *
+ * Everything is preallocated; record() never allocates. With metrics off
+ * the runner holds no TickMetrics and every probe is a null check.
+ */
+class TickMetrics {
+
+    static final int LOOKUP = 0;
+    static final int DECISION = 1;
+    static final int SCALING = 2;
+    static final int RESULTS = 3;
+    static final int ENERGY = 4;
+    static final int TICK = 5;
+    private static final String[] NAMES = {"lookup", "decision", "scaling", "results", "energy", "tick"};
+
+    private final LatencyHistogram[] interval = new LatencyHistogram[NAMES.length];
+    private final LatencyHistogram[] total = new LatencyHistogram[NAMES.length];
+    private final double dumpInterval;
+    private final PrintWriter out;
+    private double nextDump;
+
+    private long ticks;
+    private long predictionMisses;
+    private long scalingActions;
+
+    /**
+     * @param path CSV dump file, or "none" to keep the totals only
+     */
+    TickMetrics(String path, double dumpInterval) {
+        for (int i = 0; i < NAMES.length; i++) {
+            interval[i] = new LatencyHistogram();
+            total[i] = new LatencyHistogram();
+        }
+        this.dumpInterval = dumpInterval;
+        this.nextDump = dumpInterval;
+        if (path.equals("none")) {
+            out = null;
+            return;
+        }
+        try {
+            out = new PrintWriter(new FileWriter(path));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open tick metrics file: " + e.getMessage(), e);
+        }
+        out.println("time,ticks,prediction_misses,scaling_actions,probe,count,"
+                + "mean_us,p50_us,p90_us,p99_us,p999_us,max_us");
+    }
+
+    void record(int probe, long nanos) {
+        interval[probe].record(nanos);
+    }
+
+    void tick() { ticks++; }
+    void predictionMisses(int n) { predictionMisses += n; }
+    void scalingAction() { scalingActions++; }
+
+    /** Dump and roll the interval histograms once dumpInterval has passed. */
+    void maybeDump(double time) {
+        if (dumpInterval > 0 && time >= nextDump) {
+            dump(time);
+            while (nextDump <= time) {
+                nextDump += dumpInterval;
+            }
+        }
+    }
+
+    private void dump(double time) {
+        for (int i = 0; i < NAMES.length; i++) {
+            LatencyHistogram h = interval[i];
+            if (out != null && h.count() > 0) {
+                out.printf("%.2f,%d,%d,%d,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        time, ticks, predictionMisses, scalingActions, NAMES[i], h.count(),
+                        h.mean() / 1e3, h.percentile(50) / 1e3, h.percentile(90) / 1e3,
+                        h.percentile(99) / 1e3, h.percentile(99.9) / 1e3, h.max() / 1e3);
+            }
+            total[i].add(h);
+            h.reset();
+        }
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /** Final dump of the last (partial) interval. */
+    void close(double endTime) {
+        dump(endTime);
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    /** Console summary of the run totals. */
+    void print() {
+        System.out.printf("Tick metrics: %d ticks, %d prediction misses, %d scaling actions%n",
+                ticks, predictionMisses, scalingActions);
+        for (int i = 0; i < NAMES.length; i++) {
+            LatencyHistogram h = total[i];
+            if (h.count() > 0) {
+                System.out.printf("  %-8s n=%d mean=%.1f p50=%.1f p99=%.1f p99.9=%.1f max=%.1f us%n",
+                        NAMES[i], h.count(), h.mean() / 1e3, h.percentile(50) / 1e3,
+                        h.percentile(99) / 1e3, h.percentile(99.9) / 1e3, h.max() / 1e3);
+            }
+        }
+    }
+
+    long getTicks() { return ticks; }
+    long getPredictionMisses() { return predictionMisses; }
+    long getScalingActions() { return scalingActions; }
+}
@@ -0,0 +1,231 @@
+package cloudsim;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.resources.Processor;
+import org.cloudbus.cloudsim.resources.Ram;
+import org.cloudbus.cloudsim.resources.ResourceManageable;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.autoscaling.VerticalVmScalingSimple;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vertical scaling executor (scaling.mode=vertical): grows and shrinks the
+ * running VMs instead of creating / destroying them, through CloudSim Plus
+ * VerticalVmScaling requests (one for PEs, one for RAM per VM).
+ *
+ * Logic:
+ * - capacity is counted in base VMs (total PEs / vm.pes), so the policy's
+ *   VM count keeps its meaning
+ * - one step adds / removes vm.pes PEs and vm.ram MB on one VM; each VM
+ *   takes at most one step per evaluation
+ * - grow: the smallest VM whose host still has a step of free PEs and RAM
+ *   (after this evaluation's other requests), up to maxPes per VM
+ * - no VM can grow: fall back to VmScaler (one more base VM), but only
+ *   when some host still has room for a base VM; otherwise the scale-up
+ *   stops (an unplaceable VM would only retry placement forever)
+ * - shrink: the largest VM above base size; all at base size: fall back to
+ *   VmScaler (one VM less)
+ *
+ * VMs whose placement failed do not count towards the capacity.
+ *
+ * The requests go through the datacenter (VM_VERTICAL_SCALING), so a VM's
+ * new size shows up once CloudSim has processed them (same simulation time).
+ */
+class VerticalVmScaler {
+
+    private static final long[] NONE = new long[2];
+
+    private final VmScaler horizontal;
+    private final List<Vm> vmList;
+    private final List<? extends Host> hosts;
+    private final int basePes;
+    private final long baseRam;
+    private final int maxPes;
+
+    // Per evaluation: VMs already resized and host capacity already promised
+    private final Set<Vm> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Host, long[]> reserved = new IdentityHashMap<>();
+    private int pendingUnits;
+
+    private long grows;
+    private long shrinks;
+    private long fallbackUps;
+    private long fallbackDowns;
+    private long scalingActions;
+
+    VerticalVmScaler(VmScaler horizontal, List<Vm> vmList, List<? extends Host> hosts,
+                     int basePes, long baseRam, int maxPes) {
+        if (maxPes < basePes) {
+            throw new IllegalArgumentException("scaling.vertical.maxPes must be >= vm.pes: " + maxPes);
+        }
+        this.horizontal = horizontal;
+        this.vmList = vmList;
+        this.hosts = hosts;
+        this.basePes = basePes;
+        this.baseRam = baseRam;
+        this.maxPes = maxPes;
+    }
+
+    /** Give a new VM its PE and RAM scaling objects (ScenarioFactory.createVms). */
+    static void attach(Vm vm, int stepPes, long stepRam) {
+        vm.setPeVerticalScaling(new Request(Processor.class, stepPes));
+        vm.setRamVerticalScaling(new Request(Ram.class, stepRam));
+    }
+
+    /** Provisioned capacity in base VMs (VMs not placed yet count at base size, failed ones not at all). */
+    int capacity() {
+        long pes = 0;
+        for (Vm vm : vmList) {
+            if (!vm.isFailed()) {
+                pes += vm.getNumberOfPes();
+            }
+        }
+        return (int) ((pes + basePes - 1) / basePes);
+    }
+
+    /** Bring the capacity to target base VMs. Returns true if anything changed. */
+    boolean scaleTo(int target, double time) {
+        touched.clear();
+        reserved.clear();
+        pendingUnits = 0;
+
+        boolean changed = false;
+        while (capacity() + pendingUnits < target) {
+            Vm vm = growCandidate();
+            if (vm != null) {
+                request(vm, +1, time);
+                grows++;
+            } else if (reserveBaseVm() && horizontal.scaleTo(vmList.size() + 1)) {
+                fallbackUps++;
+            } else {
+                break;
+            }
+            changed = true;
+        }
+        while (capacity() + pendingUnits > target && !vmList.isEmpty()) {
+            Vm vm = shrinkCandidate();
+            if (vm != null) {
+                request(vm, -1, time);
+                shrinks++;
+            } else if (vmList.size() > 1 && horizontal.scaleTo(vmList.size() - 1)) {
+                fallbackDowns++;
+            } else {
+                break;
+            }
+            changed = true;
+        }
+        if (changed) {
+            scalingActions++;
+        }
+        return changed;
+    }
+
+    private Vm growCandidate() {
+        Vm best = null;
+        for (Vm vm : vmList) {
+            if (!vm.isCreated() || touched.contains(vm) || vm.getNumberOfPes() + basePes > maxPes) {
+                continue;
+            }
+            if (!room(vm.getHost())) {
+                continue;
+            }
+            if (best == null || vm.getNumberOfPes() < best.getNumberOfPes()) {
+                best = vm;
+            }
+        }
+        return best;
+    }
+
+    /** Promise a base VM's PEs and RAM on the first host that still has them. */
+    private boolean reserveBaseVm() {
+        for (Host host : hosts) {
+            if (!room(host)) {
+                continue;
+            }
+            long[] r = reserved.computeIfAbsent(host, h -> new long[2]);
+            r[0] += basePes;
+            r[1] += baseRam;
+            return true;
+        }
+        return false;
+    }
+
+    // Free PEs and RAM for one more step, after this evaluation's promises
+    private boolean room(Host host) {
+        long[] r = reserved.getOrDefault(host, NONE);
+        return host.getFreePesNumber() - r[0] >= basePes
+                && host.getRamProvisioner().getAvailableResource() - r[1] >= baseRam;
+    }
+
+    private Vm shrinkCandidate() {
+        Vm best = null;
+        for (Vm vm : vmList) {
+            if (!vm.isCreated() || touched.contains(vm) || vm.getNumberOfPes() < 2L * basePes) {
+                continue;
+            }
+            if (best == null || vm.getNumberOfPes() > best.getNumberOfPes()) {
+                best = vm;
+            }
+        }
+        return best;
+    }
+
+    private void request(Vm vm, int direction, double time) {
+        touched.add(vm);
+        pendingUnits += direction;
+        if (direction > 0) {
+            long[] r = reserved.computeIfAbsent(vm.getHost(), h -> new long[2]);
+            r[0] += basePes;
+            r[1] += baseRam;
+        }
+        ((Request) vm.getPeVerticalScaling()).send(direction, time);
+        ((Request) vm.getRamVerticalScaling()).send(direction, time);
+    }
+
+    long getGrows() { return grows; }
+    long getShrinks() { return shrinks; }
+    long getResizes() { return grows + shrinks; }
+    long getFallbackUps() { return fallbackUps; }
+    long getFallbackDowns() { return fallbackDowns; }
+    long getScalingActions() { return scalingActions; }
+
+    /**
+     * Scaling object driven by the executor only: CloudSim's own
+     * utilisation checks never fire, and the direction of the last
+     * request tells the allocation policy whether to grow or shrink.
+     */
+    static final class Request extends VerticalVmScalingSimple {
+
+        private int direction;
+
+        Request(Class<? extends ResourceManageable> resourceClass, double step) {
+            super(resourceClass, 1.0);
+            setResourceScaling(s -> step);
+        }
+
+        void send(int direction, double time) {
+            this.direction = direction;
+            requestUpScaling(time);
+        }
+
+        @Override
+        protected boolean isTimeToCheckPredicate(double time) {
+            return false;
+        }
+
+        @Override
+        public boolean isVmOverloaded() {
+            return direction > 0;
+        }
+
+        @Override
+        public boolean isVmUnderloaded() {
+            return direction < 0;
+        }
+    }
+}
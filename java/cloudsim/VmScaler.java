@@ -0,0 +1,203 @@
+package cloudsim;
+
+import autoscaling.Checkpointable;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Applies a VM-count decision: creates and submits VMs to scale up,
+ * destroys the most recently added VMs to scale down (or, with an
+ * energy-aware placement, the VMs on the least-loaded hosts).
+ *
+ * Boot and shutdown delays (vm.bootDelay / vm.shutdownDelay):
+ * - a new VM is submitted with a submission delay, so the broker asks
+ *   for its placement (and it can run cloudlets) only after the boot
+ * - a removed VM leaves the VM list at once but keeps its host resources
+ *   for the shutdown delay; a VM still booting is destroyed once it has
+ *   been placed
+ *
+ * A removal listener (setOnRemove) hears of every VM taken out of the list.
+ */
+public class VmScaler implements Checkpointable {
+
+    private final DatacenterBroker broker;
+    private final ScenarioFactory factory;
+    private final List<Vm> vmList;
+    private EnergyAwareVmAllocationPolicy placement;
+    private double bootDelay;
+    private double shutdownDelay;
+    private Consumer<Vm> onRemove;
+
+    // Removed VMs still holding their host, with the time they may go
+    private final List<Vm> draining = new ArrayList<>();
+    private final List<Double> drainDue = new ArrayList<>();
+
+    private long scaleUps;
+    private long scaleDowns;
+    private long vmsCreated;
+    private long vmsDestroyed;
+
+    public VmScaler(DatacenterBroker broker, ScenarioFactory factory, List<Vm> vmList) {
+        this.broker = broker;
+        this.factory = factory;
+        this.vmList = vmList;
+    }
+
+    /** Let the placement policy choose scale-in victims (null = last VMs). */
+    public void setPlacement(EnergyAwareVmAllocationPolicy placement) {
+        this.placement = placement;
+    }
+
+    /** Seconds before a new VM is placed / a removed VM releases its host (0 = at once). */
+    public void setDelays(double bootDelay, double shutdownDelay) {
+        this.bootDelay = bootDelay;
+        this.shutdownDelay = shutdownDelay;
+    }
+
+    /** Called with every VM removed from the list (null = none). */
+    public void setOnRemove(Consumer<Vm> onRemove) {
+        this.onRemove = onRemove;
+    }
+
+    /** Bring the VM count to newVmCount. Returns true if anything changed. */
+    public boolean scaleTo(int newVmCount) {
+        int currentVmCount = vmList.size();
+
+        // Scale up
+        if (newVmCount > currentVmCount) {
+            int toAdd = newVmCount - currentVmCount;
+            List<Vm> extraVms = factory.createVms(toAdd);
+            if (bootDelay > 0) {
+                for (Vm vm : extraVms) {
+                    vm.setSubmissionDelay(bootDelay);
+                }
+            }
+            vmList.addAll(extraVms);
+            broker.submitVmList(extraVms);
+            scaleUps++;
+            vmsCreated += toAdd;
+            return true;
+        }
+        // Scale down: drain the least-loaded hosts
+        else if (newVmCount < currentVmCount && placement != null) {
+            List<Vm> victims = placement.selectVictims(vmList, currentVmCount - newVmCount);
+            Set<Vm> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removed.addAll(victims);
+            vmList.removeIf(removed::contains);
+            for (Vm vm : victims) {
+                removed(vm);
+                if (delayed()) {
+                    drain(vm);
+                } else if (vm.isCreated()) {
+                    placement.deallocateHostForVm(vm);
+                }
+                vmsDestroyed++;
+            }
+            scaleDowns++;
+            return true;
+        }
+        // Scale down (naive: destroy last VMs)
+        else if (newVmCount < currentVmCount) {
+            int toRemove = currentVmCount - newVmCount;
+            for (int i = 0; i < toRemove && !vmList.isEmpty(); i++) {
+                Vm vm = vmList.remove(vmList.size() - 1);
+                removed(vm);
+                if (delayed()) {
+                    drain(vm);
+                } else if (vm.getHost() != null) {
+                    vm.getHost().destroyVm(vm);
+                }
+                vmsDestroyed++;
+            }
+            scaleDowns++;
+            return true;
+        }
+        return false;
+    }
+
+    private void removed(Vm vm) {
+        if (onRemove != null) {
+            onRemove.accept(vm);
+        }
+    }
+
+    private boolean delayed() {
+        return bootDelay > 0 || shutdownDelay > 0;
+    }
+
+    private void drain(Vm vm) {
+        draining.add(vm);
+        drainDue.add(broker.getSimulation().clock() + shutdownDelay);
+    }
+
+    /**
+     * Destroy the removed VMs whose shutdown delay is over (called every
+     * tick). VMs still booting wait until placed; failed ones are dropped.
+     */
+    public void releaseDrained() {
+        double now = broker.getSimulation().clock();
+        for (int i = draining.size() - 1; i >= 0; i--) {
+            Vm vm = draining.get(i);
+            if (vm.isFailed()) {
+                draining.remove(i);
+                drainDue.remove(i);
+            } else if (drainDue.get(i) <= now && vm.isCreated()) {
+                if (placement != null) {
+                    placement.deallocateHostForVm(vm);
+                } else {
+                    vm.getHost().destroyVm(vm);
+                }
+                draining.remove(i);
+                drainDue.remove(i);
+            }
+        }
+    }
+
+    /** VMs removed from the list but not destroyed yet. */
+    public int getDrainingCount() { return draining.size(); }
+
+    /** VMs in the list not placed yet (booting, or waiting for a host). */
+    public int getBootingCount() {
+        int n = 0;
+        for (Vm vm : vmList) {
+            if (!vm.isCreated() && !vm.isFailed()) n++;
+        }
+        return n;
+    }
+
+    public List<Vm> getVmList() { return vmList; }
+    public long getScaleUps() { return scaleUps; }
+    public long getScaleDowns() { return scaleDowns; }
+    public long getScalingActions() { return scaleUps + scaleDowns; }
+    public long getVmsCreated() { return vmsCreated; }
+    public long getVmsDestroyed() { return vmsDestroyed; }
+
+    // Action counters (checkpoint); the VM list itself is rebuilt by the runner
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(scaleUps);
+        out.writeLong(scaleDowns);
+        out.writeLong(vmsCreated);
+        out.writeLong(vmsDestroyed);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        scaleUps = in.readLong();
+        scaleDowns = in.readLong();
+        vmsCreated = in.readLong();
+        vmsDestroyed = in.readLong();
+    }
+}
@@ -0,0 +1,49 @@
+"""
+Dump a trained RandomForest (optionally a Pipeline of StandardScaler + RF)
+to the BBTREE01 binary format read by autoscaling.TreeEnsembleLoader.
+
+Usage from 03_ml_training.ipynb, after training:
+
+    from export_forest import export_forest
+    export_forest(reg_model, "../data/models/cpu_future_rf.bin")
+    export_forest(cls_model, "../data/models/high_load_rf.bin")
+"""
+import struct
+
+import numpy as np
+
+MAGIC = b"BBTREE01"
+
+
+def export_forest(model, path):
+    scaler = None
+    forest = model
+    if hasattr(model, "steps"):  # sklearn Pipeline
+        scaler = model.named_steps.get("scaler")
+        forest = model.steps[-1][1]
+
+    classifier = hasattr(forest, "classes_")
+    n_features = forest.n_features_in_
+    n_outputs = len(forest.classes_) if classifier else 1
+    if classifier and n_outputs != 2:
+        raise ValueError("only binary classifiers are supported")
+
+    mean = np.zeros(n_features) if scaler is None else scaler.mean_
+    scale = np.ones(n_features) if scaler is None else scaler.scale_
+
+    with open(path, "wb") as f:
+        f.write(MAGIC)
+        f.write(struct.pack("<iiii", 1 if classifier else 0, n_features,
+                            len(forest.estimators_), n_outputs))
+        f.write(np.asarray(mean, dtype="<f8").tobytes())
+        f.write(np.asarray(scale, dtype="<f8").tobytes())
+        for est in forest.estimators_:
+            t = est.tree_
+            f.write(struct.pack("<i", t.node_count))
+            f.write(t.children_left.astype("<i4").tobytes())
+            f.write(t.children_right.astype("<i4").tobytes())
+            f.write(t.feature.astype("<i4").tobytes())
+            f.write(t.threshold.astype("<f8").tobytes())
+            # value: (nodes, n_outputs=1, n_classes) -> (nodes, n_classes)
+            f.write(t.value[:, 0, :].astype("<f8").tobytes())
+    print(f"Exported {type(forest).__name__} ({len(forest.estimators_)} trees) to {path}")